@@ -0,0 +1,89 @@
+package com.github.randomdwi.polygonclipping.benchmark;
+
+import com.github.randomdwi.polygonclipping.BooleanOperation;
+import com.github.randomdwi.polygonclipping.Polygon;
+import com.github.randomdwi.polygonclipping.PreparedPolygon;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the boolean operations on pairs of polygons taken from the random polygon corpus
+ * in {@code src/test/resources/polygons/random}.
+ * <p>
+ * Every size class uses the polygons {@code p<size>-0} and {@code p<size>-1}.
+ * If a size class only contains one polygon, it is clipped against a translated copy of itself.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BooleanOperationBenchmark {
+
+    private static final String CORPUS = "/polygons/random/";
+
+    @Param({"10", "20", "50", "100", "500", "1000", "2000", "3000", "5000", "10000"})
+    public int size;
+
+    private Polygon subject;
+    private Polygon clipping;
+    private PreparedPolygon preparedClipping;
+    private BooleanOperation workspace = new BooleanOperation();
+
+    @Setup
+    public void setup() throws IOException {
+        subject = load("p" + size + "-0");
+
+        if (BooleanOperationBenchmark.class.getResource(CORPUS + "p" + size + "-1") != null) {
+            clipping = load("p" + size + "-1");
+        } else {
+            clipping = subject.copy();
+            clipping.move(subject.boundingBox().getWidth() * 0.1, subject.boundingBox().getHeight() * 0.1);
+        }
+        preparedClipping = new PreparedPolygon(clipping);
+    }
+
+    @Benchmark
+    public Polygon intersection() {
+        return BooleanOperation.INTERSECTION(subject, clipping);
+    }
+
+    @Benchmark
+    public Polygon union() {
+        return BooleanOperation.UNION(subject, clipping);
+    }
+
+    @Benchmark
+    public Polygon difference() {
+        return BooleanOperation.DIFFERENCE(subject, clipping);
+    }
+
+    @Benchmark
+    public Polygon xor() {
+        return BooleanOperation.XOR(subject, clipping);
+    }
+
+    @Benchmark
+    public Polygon intersectionReusedWorkspace() {
+        return workspace.intersection(subject, clipping);
+    }
+
+    @Benchmark
+    public Polygon intersectionPreparedClipping() {
+        return workspace.intersection(subject, preparedClipping);
+    }
+
+    private static Polygon load(String name) throws IOException {
+        InputStream inputStream = BooleanOperationBenchmark.class.getResourceAsStream(CORPUS + name);
+
+        if (inputStream == null) {
+            throw new IllegalArgumentException("polygon not found in corpus: " + name);
+        }
+
+        return new Polygon(inputStream);
+    }
+}
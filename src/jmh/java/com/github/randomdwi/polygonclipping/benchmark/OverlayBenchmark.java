@@ -0,0 +1,78 @@
+package com.github.randomdwi.polygonclipping.benchmark;
+
+import com.github.randomdwi.polygonclipping.BooleanOperation;
+import com.github.randomdwi.polygonclipping.Polygon;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks operations on many overlapping layers, comparing a single sweep with a sequence of binary operations.
+ * <p>
+ * Every layer is a random star shaped polygon, the layers are scattered over a common area.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OverlayBenchmark {
+
+    private static final int POINTS = 40;
+    private static final double SCALE = 1000.0;
+
+    @Param({"10", "50"})
+    public int layers;
+
+    private List<Polygon> polygons;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(3);
+        polygons = new ArrayList<>(layers);
+
+        for (int i = 0; i < layers; i++) {
+            double cx = random.nextDouble() * 10 * SCALE;
+            double cy = random.nextDouble() * 10 * SCALE;
+            double[][] points = new double[POINTS][];
+            for (int j = 0; j < POINTS; j++) {
+                double angle = 2 * Math.PI * j / POINTS;
+                double radius = (1.0 + 0.5 * random.nextDouble()) * SCALE;
+                points[j] = new double[]{cx + radius * Math.cos(angle), cy + radius * Math.sin(angle)};
+            }
+            polygons.add(Polygon.from(points));
+        }
+    }
+
+    @Benchmark
+    public Polygon unionSingleSweep() {
+        return new BooleanOperation().union(polygons);
+    }
+
+    @Benchmark
+    public Polygon unionSequential() {
+        Polygon result = polygons.get(0);
+        for (Polygon polygon : polygons.subList(1, layers)) {
+            result = BooleanOperation.UNION(result, polygon);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public Polygon differenceSingleSweep() {
+        return BooleanOperation.DIFFERENCE(polygons.get(0), polygons.subList(1, layers));
+    }
+
+    @Benchmark
+    public Polygon differenceSequential() {
+        Polygon result = polygons.get(0);
+        for (Polygon polygon : polygons.subList(1, layers)) {
+            result = BooleanOperation.DIFFERENCE(result, polygon);
+        }
+        return result;
+    }
+}
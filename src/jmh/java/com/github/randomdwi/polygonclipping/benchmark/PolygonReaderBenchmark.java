@@ -0,0 +1,62 @@
+package com.github.randomdwi.polygonclipping.benchmark;
+
+import com.github.randomdwi.polygonclipping.Polygon;
+import com.github.randomdwi.polygonclipping.utils.PolygonBinaryFormat;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks reading polygons of the random polygon corpus from the text and the binary format.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PolygonReaderBenchmark {
+
+    private static final String CORPUS = "/polygons/random/";
+
+    @Param({"100", "1000", "10000"})
+    public int size;
+
+    private byte[] text;
+    private ByteBuffer binary;
+
+    @Setup
+    public void setup() throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (InputStream inputStream = PolygonReaderBenchmark.class.getResourceAsStream(CORPUS + "p" + size + "-0")) {
+            if (inputStream == null) {
+                throw new IllegalArgumentException("polygon not found in corpus: p" + size + "-0");
+            }
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = inputStream.read(buffer)) > 0) {
+                outputStream.write(buffer, 0, read);
+            }
+        }
+        text = outputStream.toByteArray();
+
+        outputStream.reset();
+        PolygonBinaryFormat.write(new Polygon(new ByteArrayInputStream(text)), outputStream);
+        binary = ByteBuffer.wrap(outputStream.toByteArray());
+    }
+
+    @Benchmark
+    public Polygon readText() throws IOException {
+        return new Polygon(new ByteArrayInputStream(text));
+    }
+
+    @Benchmark
+    public Polygon readBinary() {
+        return PolygonBinaryFormat.read(binary.duplicate());
+    }
+}
@@ -0,0 +1,160 @@
+package com.github.randomdwi.polygonclipping;
+
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+
+/**
+ * Asynchronous execution of many boolean operations.
+ * <p>
+ * Every job runs on the executor of the batch and completes a {@link CompletableFuture}. The jobs share a pool of
+ * {@link BooleanOperation} workspaces: a running job takes an idle workspace and returns it when done, so the
+ * buffers are reused and at most one workspace per concurrently running job is created.
+ * <p>
+ * Without an executor, the jobs run on virtual threads if the runtime supports them (Java 21 and the multi-release
+ * jar built with the java21 profile) and on the common fork/join pool otherwise.
+ * A batch can be used by several threads concurrently.
+ */
+public class BatchOperation {
+
+    /**
+     * A boolean operation between two polygons.
+     */
+    public static class Job {
+
+        private final Polygon subject;
+        private final Polygon clipping;
+        private final BooleanOperation.Type operation;
+
+        /**
+         * Create a job.
+         *
+         * @param subject   subject polygon
+         * @param clipping  clipping polygon
+         * @param operation the operation
+         */
+        public Job(Polygon subject, Polygon clipping, BooleanOperation.Type operation) {
+            this.subject = subject;
+            this.clipping = clipping;
+            this.operation = operation;
+        }
+
+        public Polygon getSubject() {
+            return subject;
+        }
+
+        public Polygon getClipping() {
+            return clipping;
+        }
+
+        public BooleanOperation.Type getOperation() {
+            return operation;
+        }
+    }
+
+    private final Executor executor;
+    private final Supplier<BooleanOperation> workspaceFactory;
+    private final Deque<BooleanOperation> workspaces = new ConcurrentLinkedDeque<>();
+
+    /**
+     * Create a batch running on virtual threads if available, on the common fork/join pool otherwise.
+     */
+    public BatchOperation() {
+        this(defaultExecutor());
+    }
+
+    /**
+     * Create a batch running on an executor.
+     *
+     * @param executor the executor
+     */
+    public BatchOperation(Executor executor) {
+        this(executor, BooleanOperation::new);
+    }
+
+    /**
+     * Create a batch running on an executor, with configured workspaces, e.g. with a fixed point scale.
+     *
+     * @param executor         the executor
+     * @param workspaceFactory creates a new workspace
+     */
+    public BatchOperation(Executor executor, Supplier<BooleanOperation> workspaceFactory) {
+        this.executor = executor;
+        this.workspaceFactory = workspaceFactory;
+    }
+
+    /**
+     * Submit a boolean operation.
+     *
+     * @param subject   subject polygon
+     * @param clipping  clipping polygon
+     * @param operation the operation
+     * @return future result of the operation
+     */
+    public CompletableFuture<Polygon> submit(Polygon subject, Polygon clipping, BooleanOperation.Type operation) {
+        return CompletableFuture.supplyAsync(() -> execute(subject, clipping, operation), executor);
+    }
+
+    /**
+     * Submit a job.
+     *
+     * @param job the job
+     * @return future result of the job
+     */
+    public CompletableFuture<Polygon> submit(Job job) {
+        return submit(job.getSubject(), job.getClipping(), job.getOperation());
+    }
+
+    /**
+     * Submit jobs, they may run in any order.
+     *
+     * @param jobs the jobs
+     * @return future results in the order of the jobs
+     */
+    public List<CompletableFuture<Polygon>> submitAll(List<Job> jobs) {
+        List<CompletableFuture<Polygon>> results = new ArrayList<>(jobs.size());
+        for (Job job : jobs) {
+            results.add(submit(job));
+        }
+        return results;
+    }
+
+    /**
+     * Submit jobs and combine their results.
+     *
+     * @param jobs the jobs
+     * @return future list of the results in the order of the jobs, completes exceptionally if a job fails
+     */
+    public CompletableFuture<List<Polygon>> executeAll(List<Job> jobs) {
+        List<CompletableFuture<Polygon>> results = submitAll(jobs);
+        CompletableFuture<?>[] futures = results.toArray(new CompletableFuture<?>[0]);
+        return CompletableFuture.allOf(futures).thenApply(done -> {
+            List<Polygon> polygons = new ArrayList<>(results.size());
+            results.forEach(result -> polygons.add(result.join()));
+            return polygons;
+        });
+    }
+
+    private Polygon execute(Polygon subject, Polygon clipping, BooleanOperation.Type operation) {
+        // most recently used workspace first, its buffers are the largest and warmest
+        BooleanOperation workspace = workspaces.pollFirst();
+        if (workspace == null) {
+            workspace = workspaceFactory.get();
+        }
+        try {
+            return workspace.execute(subject, clipping, operation);
+        } finally {
+            workspaces.offerFirst(workspace);
+        }
+    }
+
+    private static Executor defaultExecutor() {
+        Executor virtualThreads = VirtualThreads.executor();
+        return virtualThreads != null ? virtualThreads : ForkJoinPool.commonPool();
+    }
+}
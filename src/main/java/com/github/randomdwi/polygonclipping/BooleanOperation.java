@@ -6,34 +6,68 @@ import com.github.randomdwi.polygonclipping.geometry.BoundingBox;
 import com.github.randomdwi.polygonclipping.geometry.Contour;
 import com.github.randomdwi.polygonclipping.geometry.Intersection;
 import com.github.randomdwi.polygonclipping.geometry.Point;
-import com.github.randomdwi.polygonclipping.segment.Segment;
 import com.github.randomdwi.polygonclipping.segment.SegmentComparator;
-import com.github.randomdwi.polygonclipping.sweepline.SweepEvent;
+import com.github.randomdwi.polygonclipping.sweepline.EventStore;
 import com.github.randomdwi.polygonclipping.sweepline.SweepEventComparator;
 import com.github.randomdwi.polygonclipping.sweepline.SweepLine;
-import com.github.randomdwi.polygonclipping.sweepline.SweepLineStatus;
+import com.github.randomdwi.polygonclipping.utils.IntList;
+import com.github.randomdwi.polygonclipping.utils.RTree;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.function.IntBinaryOperator;
 
 import static com.github.randomdwi.polygonclipping.BooleanOperation.Type.*;
+import static com.github.randomdwi.polygonclipping.sweepline.EventStore.NONE;
 
+/**
+ * Boolean operations on polygons.
+ * <p>
+ * Besides the static methods, an instance can be used as a workspace for repeated operations.
+ * It keeps its event store, queues and buffers between calls and only clears them, so a warmed up
+ * instance allocates little more than the result polygon. Instances are not thread safe.
+ * <p>
+ * The input polygons are never modified. Trivial results (an empty input or disjoint bounding boxes)
+ * are not swept and share the points of the input contours.
+ */
 public class BooleanOperation {
 
-    enum Type {
+    public enum Type {
         INTERSECTION,
         UNION,
         DIFFERENCE,
         XOR
     }
 
+    private static final int SUBJECT = PolygonType.SUBJECT.ordinal();
+    private static final int CLIPPING = PolygonType.CLIPPING.ordinal();
+
     private Polygon subject;
     private Polygon clipping;
+    private PreparedPolygon preparedClipping;
     private Polygon result;
     private Type operation;
+    private boolean[] subjectSkipped;  // contours of the subject not interacting with the clipping polygon
+    private boolean[] clippingSkipped; // contours of the clipping polygon not interacting with the subject
+    private boolean winding; // winding rule instead of a boolean operation
+    private int windingThreshold = 1; // minimum winding number of the result region in winding mode
+    private DiagnosticsListener diagnosticsListener = DiagnosticsListener.NONE;
+    private double fixedPointScale; // coordinates are rounded to integers after scaling, 0 for floating point coordinates
+    private Consumer<Polygon> resultConsumer; // receives the parts of the result while sweeping, null if not streaming
+
+    private final EventStore store = new EventStore();
+    private final SweepEventComparator sweepEventComparator = new SweepEventComparator(store, false); // to compare events
+    private final IntBinaryOperator resultComparator = new SweepEventComparator(store, true)::compare;
+    private final SweepLine sweepLine = new SweepLine(new SegmentComparator(store, false));
+    private final IntList sortedEvents = new IntList();
+    private final int[] overlapEvents = new int[4];
+    private final Intersection intersection = new Intersection(); // result holder of possibleIntersection
+    private int[] eventIndex = new int[0]; // buffer for compacting the event store
 
-    private SweepEventComparator sweepEventComparator = new SweepEventComparator(false); // to compare events
-    private SweepLine sweepLine = new SweepLine(new SegmentComparator(false));
-    private Deque<SweepEvent> sortedEvents = new LinkedList<>();
+    // buffers of connectEdges
+    private final IntList resultEvents = new IntList();
+    private final BitSet processed = new BitSet(); // processed positions of resultEvents
 
     /**
      * Compute the intersection of subject with clipping polygon.
@@ -43,7 +77,7 @@ public class BooleanOperation {
      * @return result of the operation
      */
     public static Polygon INTERSECTION(Polygon subject, Polygon clipping) {
-        return new BooleanOperation(subject, clipping, INTERSECTION).execute();
+        return new BooleanOperation().execute(subject, clipping, INTERSECTION);
     }
 
     /**
@@ -54,7 +88,42 @@ public class BooleanOperation {
      * @return result of the operation
      */
     public static Polygon UNION(Polygon subject, Polygon clipping) {
-        return new BooleanOperation(subject, clipping, UNION).execute();
+        return new BooleanOperation().execute(subject, clipping, UNION);
+    }
+
+    /**
+     * Compute the union of many polygons on the common fork/join pool.
+     *
+     * @param polygons the polygons
+     * @return result of the operation
+     */
+    public static Polygon UNION(Collection<Polygon> polygons) {
+        return UNION(polygons, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Compute the union of many polygons.
+     * The polygons are merged pairwise in a balanced tree, spatially close polygons are merged first.
+     *
+     * @param polygons the polygons
+     * @param pool pool executing the merges
+     * @return result of the operation
+     */
+    public static Polygon UNION(Collection<Polygon> polygons, ForkJoinPool pool) {
+        if (polygons.size() == 1) {
+            return UNION(polygons.iterator().next(), new Polygon());
+        }
+        return pool.invoke(new CascadedUnion(polygons));
+    }
+
+    /**
+     * Compute the intersection of many polygons in a single sweep.
+     *
+     * @param polygons the polygons
+     * @return result of the operation
+     */
+    public static Polygon INTERSECTION(Collection<Polygon> polygons) {
+        return new BooleanOperation().intersection(polygons);
     }
 
     /**
@@ -65,7 +134,18 @@ public class BooleanOperation {
      * @return result of the operation
      */
     public static Polygon DIFFERENCE(Polygon subject, Polygon clipping) {
-        return new BooleanOperation(subject, clipping, DIFFERENCE).execute();
+        return new BooleanOperation().execute(subject, clipping, DIFFERENCE);
+    }
+
+    /**
+     * Compute the difference of subject with all clipping polygons in a single sweep.
+     *
+     * @param subject subject polygon
+     * @param clippings clipping polygons
+     * @return result of the operation
+     */
+    public static Polygon DIFFERENCE(Polygon subject, Collection<Polygon> clippings) {
+        return new BooleanOperation().difference(subject, clippings);
     }
 
     /**
@@ -76,23 +156,271 @@ public class BooleanOperation {
      * @return result of the operation
      */
     public static Polygon XOR(Polygon subject, Polygon clipping) {
-        return new BooleanOperation(subject, clipping, XOR).execute();
+        return new BooleanOperation().execute(subject, clipping, XOR);
+    }
+
+    /**
+     * Compute the intersection of subject with a prepared clipping polygon.
+     *
+     * @param subject subject polygon
+     * @param clipping prepared clipping polygon
+     * @return result of the operation
+     */
+    public static Polygon INTERSECTION(Polygon subject, PreparedPolygon clipping) {
+        return new BooleanOperation().executePrepared(subject, clipping, INTERSECTION);
+    }
+
+    /**
+     * Compute the union of subject with a prepared clipping polygon.
+     *
+     * @param subject subject polygon
+     * @param clipping prepared clipping polygon
+     * @return result of the operation
+     */
+    public static Polygon UNION(Polygon subject, PreparedPolygon clipping) {
+        return new BooleanOperation().executePrepared(subject, clipping, UNION);
+    }
+
+    /**
+     * Compute the difference of subject with a prepared clipping polygon.
+     *
+     * @param subject subject polygon
+     * @param clipping prepared clipping polygon
+     * @return result of the operation
+     */
+    public static Polygon DIFFERENCE(Polygon subject, PreparedPolygon clipping) {
+        return new BooleanOperation().executePrepared(subject, clipping, DIFFERENCE);
+    }
+
+    /**
+     * Compute exclusive or of subject with a prepared clipping polygon.
+     *
+     * @param subject subject polygon
+     * @param clipping prepared clipping polygon
+     * @return result of the operation
+     */
+    public static Polygon XOR(Polygon subject, PreparedPolygon clipping) {
+        return new BooleanOperation().executePrepared(subject, clipping, XOR);
+    }
+
+    /**
+     * Instantiates a new Boolean operation workspace.
+     */
+    public BooleanOperation() {
+    }
+
+    /**
+     * Set the listener receiving trace events of the operations, by default {@link DiagnosticsListener#NONE}.
+     *
+     * @param diagnosticsListener the listener
+     */
+    public void setDiagnosticsListener(DiagnosticsListener diagnosticsListener) {
+        this.diagnosticsListener = Objects.requireNonNull(diagnosticsListener);
+    }
+
+    /**
+     * Use fixed point coordinates instead of floating point coordinates with tolerances.
+     * <p>
+     * All coordinates are multiplied by the scale and rounded to integers, e.g. a scale of 1e7 for coordinates
+     * quantized to 1e-7. Intersection points are rounded to the integer grid (snap rounding) and collinearity is
+     * decided exactly, so the results are deterministic and all result points lie on the grid.
+     * The scaled coordinates must be smaller than 2^53. Contours passed to the result without sweeping,
+     * because they do not interact with the other operand, are not rounded.
+     *
+     * @param scale scale of the coordinates, 0 for floating point coordinates (default)
+     */
+    public void setFixedPointScale(double scale) {
+        if (scale < 0 || Double.isInfinite(scale) || Double.isNaN(scale)) {
+            throw new IllegalArgumentException("invalid fixed point scale: " + scale);
+        }
+        this.fixedPointScale = scale;
+        store.setExact(scale != 0);
+    }
+
+    /**
+     * Compute the intersection of subject with clipping polygon.
+     *
+     * @param subject subject polygon
+     * @param clipping clipping polygon
+     * @return result of the operation
+     */
+    public Polygon intersection(Polygon subject, Polygon clipping) {
+        return execute(subject, clipping, INTERSECTION);
+    }
+
+    /**
+     * Compute the union of subject with clipping polygon.
+     *
+     * @param subject subject polygon
+     * @param clipping clipping polygon
+     * @return result of the operation
+     */
+    public Polygon union(Polygon subject, Polygon clipping) {
+        return execute(subject, clipping, UNION);
+    }
+
+    /**
+     * Compute the difference of subject with clipping polygon.
+     *
+     * @param subject subject polygon
+     * @param clipping clipping polygon
+     * @return result of the operation
+     */
+    public Polygon difference(Polygon subject, Polygon clipping) {
+        return execute(subject, clipping, DIFFERENCE);
+    }
+
+    /**
+     * Compute exclusive or of subject with clipping polygon.
+     *
+     * @param subject subject polygon
+     * @param clipping clipping polygon
+     * @return result of the operation
+     */
+    public Polygon xor(Polygon subject, Polygon clipping) {
+        return execute(subject, clipping, XOR);
+    }
+
+    /**
+     * Compute the intersection of subject with a prepared clipping polygon.
+     *
+     * @param subject subject polygon
+     * @param clipping prepared clipping polygon
+     * @return result of the operation
+     */
+    public Polygon intersection(Polygon subject, PreparedPolygon clipping) {
+        return executePrepared(subject, clipping, INTERSECTION);
+    }
+
+    /**
+     * Compute the union of subject with a prepared clipping polygon.
+     *
+     * @param subject subject polygon
+     * @param clipping prepared clipping polygon
+     * @return result of the operation
+     */
+    public Polygon union(Polygon subject, PreparedPolygon clipping) {
+        return executePrepared(subject, clipping, UNION);
+    }
+
+    /**
+     * Compute the difference of subject with a prepared clipping polygon.
+     *
+     * @param subject subject polygon
+     * @param clipping prepared clipping polygon
+     * @return result of the operation
+     */
+    public Polygon difference(Polygon subject, PreparedPolygon clipping) {
+        return executePrepared(subject, clipping, DIFFERENCE);
     }
 
-    private BooleanOperation(Polygon subject, Polygon clip, BooleanOperation.Type operation) {
-        this.subject = subject.copy();
-        this.clipping = clip.copy();
+    /**
+     * Compute exclusive or of subject with a prepared clipping polygon.
+     *
+     * @param subject subject polygon
+     * @param clipping prepared clipping polygon
+     * @return result of the operation
+     */
+    public Polygon xor(Polygon subject, PreparedPolygon clipping) {
+        return executePrepared(subject, clipping, XOR);
+    }
+
+    /**
+     * Execute a boolean operation. The buffers of this instance are reused.
+     *
+     * @param subject subject polygon
+     * @param clipping clipping polygon
+     * @param operation the operation
+     * @return result of the operation
+     */
+    public Polygon execute(Polygon subject, Polygon clipping, Type operation) {
+        this.subject = subject;
+        this.clipping = clipping;
         this.operation = operation;
         this.result = new Polygon();
 
-        //sweepLine.statusLine = new DrawingSweepLineStatus(new SegmentComparator(false), subject, clipping, "sweep-line");
-        sweepLine.statusLine = new SweepLineStatus(new SegmentComparator(false));
+        diagnosticsListener.operationStarted(subject, clipping, operation);
+        try {
+            return execute();
+        } catch (RuntimeException e) {
+            diagnosticsListener.operationFailed(subject, clipping, operation, e);
+            throw e;
+        } finally {
+            clear();
+        }
+    }
+
+    /**
+     * Execute a boolean operation with a prepared clipping polygon. The buffers of this instance are reused.
+     *
+     * @param subject subject polygon
+     * @param clipping prepared clipping polygon
+     * @param operation the operation
+     * @return result of the operation
+     */
+    public Polygon executePrepared(Polygon subject, PreparedPolygon clipping, Type operation) {
+        this.preparedClipping = clipping;
+        return execute(subject, clipping.getPolygon(), operation);
+    }
+
+    /**
+     * Execute a boolean operation and pass the result to a consumer while sweeping.
+     * <p>
+     * Whenever no edge crosses the sweep line, all result contours left of it are complete. They are passed to
+     * the consumer as a polygon of their own (with hole information) and the processed events are released.
+     * The buffers then only hold the events of edges overlapping in x instead of the whole result.
+     * Contours passed to the result without sweeping are part of the last polygon.
+     * The consumer must not use this instance.
+     *
+     * @param subject subject polygon
+     * @param clipping clipping polygon
+     * @param operation the operation
+     * @param consumer receives the parts of the result, from left to right
+     */
+    public void execute(Polygon subject, Polygon clipping, Type operation, Consumer<Polygon> consumer) {
+        this.resultConsumer = Objects.requireNonNull(consumer);
+        accept(consumer, execute(subject, clipping, operation));
+    }
+
+    /**
+     * Execute a boolean operation with a prepared clipping polygon and pass the result to a consumer while sweeping,
+     * see {@link #execute(Polygon, Polygon, Type, Consumer)}.
+     *
+     * @param subject subject polygon
+     * @param clipping prepared clipping polygon
+     * @param operation the operation
+     * @param consumer receives the parts of the result, from left to right
+     */
+    public void executePrepared(Polygon subject, PreparedPolygon clipping, Type operation, Consumer<Polygon> consumer) {
+        this.resultConsumer = Objects.requireNonNull(consumer);
+        accept(consumer, executePrepared(subject, clipping, operation));
+    }
+
+    /**
+     * Reset all buffers, the allocated capacity is kept.
+     */
+    private void clear() {
+        subject = null;
+        clipping = null;
+        preparedClipping = null;
+        result = null;
+        resultConsumer = null;
+        subjectSkipped = null;
+        clippingSkipped = null;
+        winding = false;
+        windingThreshold = 1;
+        store.clear();
+        sweepLine.eventQueue.clear();
+        sweepLine.statusLine.clear();
+        sortedEvents.clear();
+        resultEvents.clear();
+        processed.clear();
     }
 
     private Polygon execute() {
 
         BoundingBox subjectBB = subject.boundingBox();     // for optimizations 1 and 2
-        BoundingBox clippingBB = clipping.boundingBox();   // for optimizations 1 and 2
+        BoundingBox clippingBB = preparedClipping != null ? preparedClipping.boundingBox() : clipping.boundingBox(); // for optimizations 1 and 2
         double MINMAXX = Math.min(subjectBB.xMax, clippingBB.xMax); // for optimization 2
 
         if (trivialOperation(subjectBB, clippingBB)) {
@@ -100,69 +428,291 @@ public class BooleanOperation {
             return result;
         }
 
-        for (int i = 0; i < subject.contourCount(); i++) {
-            for (int j = 0; j < subject.contour(i).pointCount(); j++) {
-                processSegment(subject.contour(i).segment(j), PolygonType.SUBJECT);
+        // optimization 3: contours (with their holes) not interacting with the other operand are not swept,
+        // they are passed to the result unchanged or dropped
+        if (!INTERSECTION.equals(operation)) {
+            subjectSkipped = skippedContours(subject, clippingBB);
+            clippingSkipped = skippedContours(clipping, subjectBB);
+        }
+
+        // optimization 4: segments right of the end of the sweep (optimization 2) do not enter the event queue
+        processPolygon(subject, SUBJECT, INTERSECTION.equals(operation) ? MINMAXX : Double.POSITIVE_INFINITY, subjectSkipped);
+        if (store.size() == 0 && (INTERSECTION.equals(operation) || DIFFERENCE.equals(operation))) {
+            // nothing of the subject is left to sweep
+            shareSkippedContours();
+            return result;
+        }
+        // optimization 2
+        double maxX = Double.POSITIVE_INFINITY;
+        if (INTERSECTION.equals(operation)) {
+            maxX = MINMAXX;
+        } else if (DIFFERENCE.equals(operation)) {
+            maxX = eventMaxX();
+        }
+        if (preparedClipping != null) {
+            processPreparedPolygon(preparedClipping, maxX, clippingSkipped);
+        } else {
+            processPolygon(clipping, CLIPPING, maxX, clippingSkipped);
+        }
+
+        sweep(maxX);
+        connectEdges();
+        shareSkippedContours();
+        return result;
+    }
+
+    /**
+     * Compute the union of many polygons in a single sweep.
+     *
+     * @param polygons the polygons
+     * @return result of the operation
+     */
+    public Polygon union(Collection<Polygon> polygons) {
+        startWinding(1);
+        try {
+            int polygon = 0;
+            for (Polygon operand : polygons) {
+                polygon = addWindingPolygon(operand, polygon, 1);
+            }
+            return sweepWinding(Double.POSITIVE_INFINITY);
+        } finally {
+            clear();
+        }
+    }
+
+    /**
+     * Compute the intersection of many polygons in a single sweep.
+     *
+     * @param polygons the polygons
+     * @return result of the operation
+     */
+    public Polygon intersection(Collection<Polygon> polygons) {
+        BoundingBox common = new BoundingBox(Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY);
+        for (Polygon operand : polygons) {
+            BoundingBox bb = operand.boundingBox();
+            common = new BoundingBox(Math.max(common.xMin, bb.xMin), Math.max(common.yMin, bb.yMin),
+                    Math.min(common.xMax, bb.xMax), Math.min(common.yMax, bb.yMax));
+        }
+        if (polygons.isEmpty() || common.xMin > common.xMax || common.yMin > common.yMax) {
+            // trivial case, the bounding boxes of the polygons have no common region
+            return new Polygon();
+        }
+        startWinding(polygons.size());
+        try {
+            int polygon = 0;
+            for (Polygon operand : polygons) {
+                polygon = addWindingPolygon(operand, polygon, 1);
+            }
+            return sweepWinding(common.xMax);
+        } finally {
+            clear();
+        }
+    }
+
+    /**
+     * Compute the difference of subject with all clipping polygons in a single sweep.
+     *
+     * @param subject subject polygon
+     * @param clippings clipping polygons
+     * @return result of the operation
+     */
+    public Polygon difference(Polygon subject, Collection<Polygon> clippings) {
+        startWinding(1);
+        try {
+            BoundingBox subjectBB = subject.boundingBox();
+            int polygon = addWindingPolygon(subject, 0, 1);
+            for (Polygon operand : clippings) {
+                BoundingBox bb = operand.boundingBox();
+                if (bb.xMin <= subjectBB.xMax && subjectBB.xMin <= bb.xMax && bb.yMin <= subjectBB.yMax && subjectBB.yMin <= bb.yMax) {
+                    // clipping polygons outside of the bounding box of the subject do not change the result
+                    polygon = addWindingPolygon(operand, polygon, -1);
+                }
+            }
+            return sweepWinding(subjectBB.xMax);
+        } finally {
+            clear();
+        }
+    }
+
+    /**
+     * Compute the region with positive winding number of weighted contours in a single sweep.
+     * Each contour adds its weight to the winding number of the points it encloses,
+     * independent of the orientation of the contour.
+     *
+     * @param contours the contours
+     * @param weights weight of each contour
+     * @return region with positive winding number
+     */
+    Polygon positiveWinding(List<Contour> contours, int[] weights) {
+        startWinding(1);
+        try {
+            for (int i = 0; i < contours.size(); i++) {
+                addWindingContour(contours.get(i), i, weights[i]);
             }
+            return sweepWinding(Double.POSITIVE_INFINITY);
+        } finally {
+            clear();
         }
+    }
 
-        for (int i = 0; i < clipping.contourCount(); i++) {
-            for (int j = 0; j < clipping.contour(i).pointCount(); j++) {
-                processSegment(clipping.contour(i).segment(j), PolygonType.CLIPPING);
+    private void startWinding(int threshold) {
+        this.result = new Polygon();
+        this.winding = true;
+        this.windingThreshold = threshold;
+    }
+
+    /**
+     * Add the contours of an operand with winding number weight inside the polygon and 0 outside.
+     * Holes are identified by the hole information of the polygon, contours nested in a hole are inside again.
+     * Every contour gets its own polygon index, starting with index polygon.
+     *
+     * @return next free polygon index
+     */
+    private int addWindingPolygon(Polygon operand, int polygon, int weight) {
+        int contourCount = operand.contourCount();
+        int[] parent = new int[contourCount];
+        Arrays.fill(parent, -1);
+        for (int i = 0; i < contourCount; i++) {
+            for (int hole : operand.contour(i).getHoles()) {
+                parent[hole] = i;
+            }
+        }
+        for (int i = 0; i < contourCount; i++) {
+            int contourWeight = weight;
+            for (int p = parent[i]; p != -1; p = parent[p]) {
+                contourWeight = -contourWeight;
+            }
+            addWindingContour(operand.contour(i), polygon++, contourWeight);
+        }
+        return polygon;
+    }
+
+    private void addWindingContour(Contour contour, int polygon, int weight) {
+        if (contour.clockwise()) {
+            weight = -weight;
+        }
+        int pointCount = contour.pointCount();
+        for (int j = 0; j < pointCount; j++) {
+            int next = j + 1 < pointCount ? j + 1 : 0;
+            double xBegin = fixedPointScale != 0 ? toGrid(contour.x(j)) : contour.x(j);
+            double yBegin = fixedPointScale != 0 ? toGrid(contour.y(j)) : contour.y(j);
+            double xEnd = fixedPointScale != 0 ? toGrid(contour.x(next)) : contour.x(next);
+            double yEnd = fixedPointScale != 0 ? toGrid(contour.y(next)) : contour.y(next);
+            if (xBegin != xEnd || yBegin != yEnd) {
+                // every contour is a polygon of its own, so overlapping edges of different contours are detected
+                int e1 = store.addSegment(xBegin, yBegin, xEnd, yEnd, polygon);
+                // crossing an edge from left to right upwards enters a counter-clockwise contour
+                setWindDelta(e1, store.isLeft(e1) ? weight : -weight);
+                sweepLine.eventQueue.add(e1);
+                sweepLine.eventQueue.add(store.otherEvent(e1));
             }
         }
+    }
 
+    private Polygon sweepWinding(double maxX) {
+        sweep(maxX);
+        connectEdges();
+        return result;
+    }
+
+    /**
+     * Process the events of the queue up to x coordinate maxX
+     */
+    private void sweep(double maxX) {
+        if (fixedPointScale != 0) {
+            maxX = toGrid(maxX);
+        }
         while (!sweepLine.eventQueue.isEmpty()) {
-            SweepEvent se = sweepLine.eventQueue.poll();
-            // optimization 2
-            if ((INTERSECTION.equals(operation) && se.point.x > MINMAXX) ||
-                    (DIFFERENCE.equals(operation) && se.point.x > subjectBB.xMax)) {
-                connectEdges();
-                return result;
+            int se = sweepLine.eventQueue.poll();
+            if (store.x(se) > maxX) {
+                return;
             }
             sortedEvents.add(se);
 
-            if (se.left) { // the line segment must be inserted into sl
+            if (store.isLeft(se)) { // the line segment must be inserted into sl
 
                 sweepLine.statusLine.addEvent(se);
+                if (winding) {
+                    alignOverlappingSegments(se);
+                }
 
-                SweepEvent prev = sweepLine.statusLine.getPreviousEvent(se);
-                SweepEvent next = sweepLine.statusLine.getNextEvent(se);
+                int prev = sweepLine.statusLine.getPreviousEvent(se);
+                int next = sweepLine.statusLine.getNextEvent(se);
 
                 computeFields(se, prev);
                 // Process a possible intersection between "se" and its next neighbor in sl
-                if (next != null) {
+                if (next != NONE) {
                     if (possibleIntersection(se, next) == 2) {
                         computeFields(se, prev);
                         computeFields(next, se);
                     }
                 }
                 // Process a possible intersection between "se" and its previous neighbor in sl
-                if (prev != null) {
+                if (prev != NONE) {
                     if (possibleIntersection(prev, se) == 2) {
-                        SweepEvent prevPrev = sweepLine.statusLine.getPreviousEvent(prev);
+                        int prevPrev = sweepLine.statusLine.getPreviousEvent(prev);
                         computeFields(prev, prevPrev);
                         computeFields(se, prev);
                     }
                 }
+                diagnosticsListener.segmentAdded(store, sweepLine.statusLine, se);
             } else {
                 // the line segment must be removed from sl
-                se = se.otherEvent; // we work with the left event
+                se = store.otherEvent(se); // we work with the left event
 
-                SweepEvent prev = sweepLine.statusLine.getPreviousEvent(se);
-                SweepEvent next = sweepLine.statusLine.getNextEvent(se);
+                int prev = sweepLine.statusLine.getPreviousEvent(se);
+                int next = sweepLine.statusLine.getNextEvent(se);
 
                 // delete line segment associated to "se" from sl
                 sweepLine.statusLine.removeEvent(se);
+                diagnosticsListener.segmentRemoved(store, sweepLine.statusLine, se);
 
-                if (prev != null && next != null) {
+                if (prev != NONE && next != NONE) {
                     //check for intersection between the neighbors of "se" in sl
                     possibleIntersection(prev, next);
                 }
+
+                if (resultConsumer != null && sweepLine.statusLine.isEmpty()) {
+                    int nextEvent = sweepLine.eventQueue.peek();
+                    double x = store.x(store.otherEvent(se));
+                    if (nextEvent == NONE || (store.x(nextEvent) > x && !Point.isCloseTo(store.x(nextEvent), x))) {
+                        // no edge crosses the sweep line, the result left of it is complete
+                        flush();
+                    }
+                }
             }
         }
+    }
+
+    /**
+     * Connect the edges of the processed events, pass the contours to the result consumer and release the events.
+     */
+    private void flush() {
         connectEdges();
-        return result;
+        accept(resultConsumer, result);
+        result = new Polygon();
+        sortedEvents.clear();
+        resultEvents.clear();
+        processed.clear();
+
+        int queued = sweepLine.eventQueue.size();
+        if (store.size() > 2 * queued) {
+            // most events have been processed, move the queued events to the front of the store
+            if (eventIndex.length < store.size()) {
+                eventIndex = new int[store.size()];
+            }
+            int[] index = eventIndex;
+            Arrays.fill(index, 0, store.size(), NONE);
+            sweepLine.eventQueue.forEach(event -> index[event] = event);
+            store.compact(index);
+            sweepLine.eventQueue.relocate(index);
+        }
+    }
+
+    private static void accept(Consumer<Polygon> consumer, Polygon polygon) {
+        if (!polygon.isEmpty()) {
+            consumer.accept(polygon);
+        }
     }
 
     private boolean trivialOperation(BoundingBox subjectBB, BoundingBox clippingBB) {
@@ -170,22 +720,21 @@ public class BooleanOperation {
         // Test 1 for trivial result case (at least one of the polygons is empty)
         if (subject.isEmpty() || clipping.isEmpty()) {
             if (DIFFERENCE.equals(operation)) {
-                result = subject;
+                share(subject);
             }
             if (UNION.equals(operation) || XOR.equals(operation)) {
-                result = subject.isEmpty() ? clipping : subject;
+                share(subject.isEmpty() ? clipping : subject);
             }
             return true;
         }
         // Test 2 for trivial result case (the bounding boxes do not overlap)
-        if (subjectBB.xMin > clippingBB.xMax || clippingBB.xMin > subjectBB.xMax ||
-                subjectBB.yMin > clippingBB.yMax || clippingBB.yMin > subjectBB.yMax) {
+        if (!subjectBB.intersects(clippingBB)) {
             if (DIFFERENCE.equals(operation)) {
-                result = subject;
+                share(subject);
             }
             if (UNION.equals(operation) || XOR.equals(operation)) {
-                result = subject;
-                result.join(clipping);
+                share(subject);
+                share(clipping);
             }
             return true;
         }
@@ -193,128 +742,385 @@ public class BooleanOperation {
     }
 
     /**
-     * Compute the events associated to segment s, and insert them into pq and eq
+     * Add the contours of a polygon to the result without copying the points.
+     */
+    private void share(Polygon polygon) {
+        int offset = result.contourCount();
+        for (Contour contour : polygon.getContours()) {
+            result.addContour(contour.shareWithHoleOffset(offset));
+        }
+    }
+
+    /**
+     * Add some contours of a polygon to the result without copying the points, the hole indexes are mapped
+     * to the positions of the holes in the result.
+     */
+    private void share(Polygon polygon, boolean[] contours) {
+        int[] index = new int[polygon.contourCount()];
+        int next = result.contourCount();
+        for (int i = 0; i < index.length; i++) {
+            index[i] = contours[i] ? next++ : NONE;
+        }
+        for (int i = 0; i < index.length; i++) {
+            if (contours[i]) {
+                Contour contour = polygon.contour(i);
+                Contour shared = contour.shareWithHoleOffset(0);
+                List<Integer> holes = new ArrayList<>(contour.holeCount());
+                for (int hole : contour.getHoles()) {
+                    holes.add(index[hole]);
+                }
+                shared.setHoles(holes);
+                shared.setParent(contour.getParent() < 0 ? -1 : index[contour.getParent()], contour.getDepth());
+                result.addContour(shared);
+            }
+        }
+    }
+
+    /**
+     * Pass the skipped contours belonging to the result unchanged to it.
+     * Skipped subject contours are part of the union, difference and xor, skipped clipping contours of the union and xor.
+     */
+    private void shareSkippedContours() {
+        if (subjectSkipped != null) {
+            share(subject, subjectSkipped);
+        }
+        if (clippingSkipped != null && (UNION.equals(operation) || XOR.equals(operation))) {
+            share(clipping, clippingSkipped);
+        }
+    }
+
+    /**
+     * Find the contours whose bounding box does not intersect the bounding box of the other operand.
+     * An outer contour is skipped together with its holes and their islands, so the hole hierarchy of the skipped contours is complete.
+     * Overlapping contours must be resolved by the sweep, so a contour whose bounding box intersects the one of
+     * another outer contour of the same polygon is not skipped either.
+     *
+     * @return flag for every contour, null if no contour is skipped
+     */
+    private static boolean[] skippedContours(Polygon polygon, BoundingBox otherBB) {
+        int contourCount = polygon.contourCount();
+        boolean[] hole = new boolean[contourCount];
+        for (Contour contour : polygon.getContours()) {
+            for (int h : contour.getHoles()) {
+                hole[h] = true;
+            }
+        }
+
+        BoundingBox[] boxes = new BoundingBox[contourCount];
+        List<BoundingBox> outerBoxes = new ArrayList<>();
+        int[] outerContours = new int[contourCount];
+        boolean candidates = false;
+        for (int i = 0; i < contourCount; i++) {
+            if (hole[i]) {
+                continue;
+            }
+            boxes[i] = polygon.contour(i).boundingBox();
+            outerContours[outerBoxes.size()] = i;
+            outerBoxes.add(boxes[i]);
+            candidates |= !polygon.contour(i).isHole() && !boxes[i].intersects(otherBB);
+        }
+        if (!candidates) {
+            return null;
+        }
+
+        RTree outer = new RTree(outerBoxes);
+        boolean[] overlapping = new boolean[1];
+        boolean[] skipped = null;
+        for (int i = 0; i < contourCount; i++) {
+            Contour contour = polygon.contour(i);
+            if (hole[i] || contour.isHole() || boxes[i].intersects(otherBB)) {
+                continue;
+            }
+            int candidate = i;
+            overlapping[0] = false;
+            outer.search(boxes[i], entry -> overlapping[0] |= outerContours[entry] != candidate);
+            if (overlapping[0]) {
+                continue;
+            }
+            if (skipped == null) {
+                skipped = new boolean[contourCount];
+            }
+            skipWithHoles(polygon, i, skipped);
+        }
+        return skipped;
+    }
+
+    private static void skipWithHoles(Polygon polygon, int contour, boolean[] skipped) {
+        skipped[contour] = true;
+        for (int h : polygon.contour(contour).getHoles()) {
+            skipWithHoles(polygon, h, skipped);
+        }
+    }
+
+    /**
+     * Compute the events associated to all segments of a polygon
+     *
+     * @param maxX    end of the sweep, segments right of it are dropped
+     * @param skipped contours without events, null to process all contours
+     */
+    private void processPolygon(Polygon polygon, int polygonType, double maxX, boolean[] skipped) {
+        for (int i = 0; i < polygon.contourCount(); i++) {
+            if (skipped != null && skipped[i]) {
+                continue;
+            }
+            Contour contour = polygon.contour(i);
+            int pointCount = contour.pointCount();
+            for (int j = 0; j < pointCount; j++) {
+                int next = j + 1 < pointCount ? j + 1 : 0;
+                if (beyond(Math.min(contour.x(j), contour.x(next)), maxX)) {
+                    continue;
+                }
+                processSegment(contour.x(j), contour.y(j), contour.x(next), contour.y(next), polygonType);
+            }
+        }
+    }
+
+    /**
+     * Compute the events of the segments of a prepared clipping polygon, see {@link #processPolygon(Polygon, int, double, boolean[])}.
+     * The retained events stay a sorted run.
+     *
+     * @param maxX    end of the sweep, segments right of it are dropped
+     * @param skipped contours without events, null to process all contours
      */
-    private void processSegment(Segment s, PolygonType pt) {
+    private void processPreparedPolygon(PreparedPolygon polygon, double maxX, boolean[] skipped) {
+        if (fixedPointScale != 0) {
+            // the rounded events are sorted again
+            processPolygon(polygon.getPolygon(), CLIPPING, maxX, skipped);
+            return;
+        }
+        if (skipped == null && !beyond(polygon.boundingBox().xMax, maxX)) {
+            processPreparedPolygon(polygon);
+            return;
+        }
+
+        int eventCount = polygon.eventCount();
+        if (eventIndex.length < eventCount) {
+            eventIndex = new int[eventCount];
+        }
+        int first = store.size();
+        int retained = 0;
+        for (int i = 0; i < eventCount; i++) {
+            boolean dropped = (skipped != null && skipped[polygon.contour(i)])
+                    || beyond(Math.min(polygon.x(i), polygon.x(polygon.otherEvent(i))), maxX);
+            eventIndex[i] = dropped ? NONE : first + retained++;
+        }
+        for (int i = 0; i < eventCount; i++) {
+            if (eventIndex[i] != NONE) {
+                store.add(polygon.x(i), polygon.y(i), polygon.isLeft(i), eventIndex[polygon.otherEvent(i)], CLIPPING);
+            }
+        }
+        sweepLine.eventQueue.addSortedRun(first, first + retained);
+    }
+
+    /**
+     * Is the left end of a segment right of the end of the sweep? Its events are never swept, so the segment is
+     * dropped.
+     */
+    private boolean beyond(double xLeft, double maxX) {
+        if (fixedPointScale != 0) {
+            // compared on the grid, like in the sweep
+            return toGrid(xLeft) > toGrid(maxX);
+        }
+        return xLeft > maxX;
+    }
+
+    /**
+     * Get the largest x coordinate of the events in the store.
+     */
+    private double eventMaxX() {
+        double maxX = Double.NEGATIVE_INFINITY;
+        for (int event = 0; event < store.size(); event++) {
+            maxX = Math.max(maxX, store.x(event));
+        }
+        return fixedPointScale != 0 ? maxX / fixedPointScale : maxX;
+    }
+
+    /**
+     * Compute the events associated to segment (pBegin, pEnd), and insert them into pq and eq
+     */
+    private void processSegment(double xBegin, double yBegin, double xEnd, double yEnd, int polygonType) {
 //        // if the two edge endpoints are equal the segment is dicarded
 //        if (s.degenerate()) {
 //            // This can be done as preprocessing to avoid "polygons" with less than 3 edges */
 //            return;
 //        }
-        SweepEvent e1 = new SweepEvent(s.pBegin, true, null, pt);
-        SweepEvent e2 = new SweepEvent(s.pEnd, true, e1, pt);
-        e1.otherEvent = e2;
+        if (fixedPointScale != 0) {
+            xBegin = toGrid(xBegin);
+            yBegin = toGrid(yBegin);
+            xEnd = toGrid(xEnd);
+            yEnd = toGrid(yEnd);
+            if (xBegin == xEnd && yBegin == yEnd) {
+                // collapsed by rounding
+                return;
+            }
+        }
+        int e1 = store.addSegment(xBegin, yBegin, xEnd, yEnd, polygonType);
+        sweepLine.eventQueue.add(e1);
+        sweepLine.eventQueue.add(store.otherEvent(e1));
+    }
 
-        if (s.min().equals(s.pBegin)) {
-            e2.left = false;
+    /**
+     * Round a coordinate to the integer grid of the fixed point coordinates.
+     */
+    private double toGrid(double coordinate) {
+        return Math.rint(coordinate * fixedPointScale);
+    }
+
+    /**
+     * Get the point of an event in the coordinates of the operands.
+     */
+    private void addResultPoint(Contour contour, int event) {
+        if (fixedPointScale != 0) {
+            contour.add(store.x(event) / fixedPointScale, store.y(event) / fixedPointScale);
         } else {
-            e1.left = false;
+            contour.add(store.x(event), store.y(event));
         }
-        sweepLine.eventQueue.add(e1);
-        sweepLine.eventQueue.add(e2);
+    }
+
+    /**
+     * Copy the presorted events of a prepared clipping polygon into the store and queue them as sorted run
+     */
+    private void processPreparedPolygon(PreparedPolygon polygon) {
+        int first = store.size();
+        int eventCount = polygon.eventCount();
+        for (int i = 0; i < eventCount; i++) {
+            store.add(polygon.x(i), polygon.y(i), polygon.isLeft(i), first + polygon.otherEvent(i), CLIPPING);
+        }
+        sweepLine.eventQueue.addSortedRun(first, first + eventCount);
     }
 
     /**
      * Process a possible intersection between the edges associated to the left events le1 and le2
      */
-    private int possibleIntersection(SweepEvent le1, SweepEvent le2) {
+    private int possibleIntersection(int le1, int le2) {
 
         // you can uncomment these two lines if self-intersecting polygons are not allowed
-//        if (le1.polygonType.equals(le2.polygonType)) {
+//        if (store.polygon(le1) == store.polygon(le2)) {
 //            // self intersection
 //            return 0;
 //        }
 
-        Intersection intersections = new Intersection(le1.segment(), le2.segment());
+        int other1 = store.otherEvent(le1);
+        int other2 = store.otherEvent(le2);
+        Intersection.Type type = intersection.compute(store.x(le1), store.y(le1), store.x(other1), store.y(other1),
+                store.x(le2), store.y(le2), store.x(other2), store.y(other2), fixedPointScale != 0);
 
-        if (Intersection.Type.NO_INTERSECTION.equals(intersections.type)) {
+        if (Intersection.Type.NO_INTERSECTION.equals(type)) {
             // no intersection
             return 0;
         }
 
-        if ((Intersection.Type.POINT.equals(intersections.type)) && ((le1.point.isCloseTo(le2.point)) || (le1.otherEvent.point.isCloseTo(le2.otherEvent.point)))) {
+        if ((Intersection.Type.POINT.equals(type)) && (store.isCloseTo(le1, le2) || store.isCloseTo(other1, other2))) {
             // the line segments intersect at an endpoint of both line segments
             return 0;
         }
 
-        if (Intersection.Type.OVERLAPPING.equals(intersections.type) && le1.polygonType.equals(le2.polygonType)) {
+        if (Intersection.Type.OVERLAPPING.equals(type) && store.polygon(le1) == store.polygon(le2)) {
             throw new IllegalStateException("edges of the same polygon overlap");
         }
 
         // The line segments associated to le1 and le2 intersect
-        if (Intersection.Type.POINT.equals(intersections.type)) {
-            if (!le1.point.isCloseTo(intersections.point) && !le1.otherEvent.point.isCloseTo(intersections.point)) {
+        if (Intersection.Type.POINT.equals(type)) {
+            double x = intersection.x;
+            double y = intersection.y;
+            if (fixedPointScale != 0) {
+                // snap rounding
+                x = Math.rint(x);
+                y = Math.rint(y);
+            }
+            if (!isCloseTo(le1, x, y) && !isCloseTo(other1, x, y)) {
                 // if the intersection point is not an endpoint of le1.segment ()
-                divideSegment(le1, intersections.point);
+                divideSegment(le1, x, y);
             }
-            if (!le2.point.isCloseTo(intersections.point) && !le2.otherEvent.point.isCloseTo(intersections.point)) {
+            if (!isCloseTo(le2, x, y) && !isCloseTo(other2, x, y)) {
                 // if the intersection point is not an endpoint of le2.segment ()
-                divideSegment(le2, intersections.point);
+                divideSegment(le2, x, y);
             }
             return 1;
         }
         // The line segments associated to le1 and le2 overlap
-        List<SweepEvent> sortedEvents = new ArrayList<>();
+        int[] sortedEvents = overlapEvents;
+        int size = 0;
 
-        if (le1.point.isCloseTo(le2.point)) {
-            sortedEvents.add(null);
+        if (store.isCloseTo(le1, le2)) {
+            sortedEvents[size++] = NONE;
         } else if (sweepEventComparator.compare(le1, le2) < 0) {
-            sortedEvents.add(le2);
-            sortedEvents.add(le1);
+            sortedEvents[size++] = le2;
+            sortedEvents[size++] = le1;
         } else {
-            sortedEvents.add(le1);
-            sortedEvents.add(le2);
-        }
-        if (le1.otherEvent.point.isCloseTo(le2.otherEvent.point)) {
-            sortedEvents.add(null);
-        } else if (sweepEventComparator.compare(le1.otherEvent, le2.otherEvent) < 0) {
-            sortedEvents.add(le2.otherEvent);
-            sortedEvents.add(le1.otherEvent);
+            sortedEvents[size++] = le1;
+            sortedEvents[size++] = le2;
+        }
+        if (store.isCloseTo(other1, other2)) {
+            sortedEvents[size++] = NONE;
+        } else if (sweepEventComparator.compare(other1, other2) < 0) {
+            sortedEvents[size++] = other2;
+            sortedEvents[size++] = other1;
         } else {
-            sortedEvents.add(le1.otherEvent);
-            sortedEvents.add(le2.otherEvent);
+            sortedEvents[size++] = other1;
+            sortedEvents[size++] = other2;
         }
 
-        if ((sortedEvents.size() == 2) || (sortedEvents.size() == 3 && sortedEvents.get(2) != null)) {
+        if ((size == 2) || (size == 3 && sortedEvents[2] != NONE)) {
             // both line segments are equal or share the left endpoint
-            le1.type = EdgeType.NON_CONTRIBUTING;
-            le2.type = (le1.inOut == le2.inOut) ? EdgeType.SAME_TRANSITION : EdgeType.DIFFERENT_TRANSITION;
-            if (sortedEvents.size() == 3) {
-                divideSegment(sortedEvents.get(2).otherEvent, sortedEvents.get(1).point);
+            if (winding) {
+                // divide first, so the remaining part keeps its winding number delta
+                if (size == 3) {
+                    divideSegment(store.otherEvent(sortedEvents[2]), sortedEvents[1]);
+                }
+                mergeWindDelta(le1, le2);
+                return 2;
+            }
+            store.setEdgeType(le1, EdgeType.NON_CONTRIBUTING);
+            store.setEdgeType(le2, (store.inOut(le1) == store.inOut(le2)) ? EdgeType.SAME_TRANSITION : EdgeType.DIFFERENT_TRANSITION);
+            if (size == 3) {
+                divideSegment(store.otherEvent(sortedEvents[2]), sortedEvents[1]);
             }
             return 2;
         }
-        if (sortedEvents.size() == 3) { // the line segments share the right endpoint
-            divideSegment(sortedEvents.get(0), sortedEvents.get(1).point);
+        if (size == 3) { // the line segments share the right endpoint
+            divideSegment(sortedEvents[0], sortedEvents[1]);
             return 3;
         }
-        if (sortedEvents.get(0) != sortedEvents.get(3).otherEvent) {
+        if (sortedEvents[0] != store.otherEvent(sortedEvents[3])) {
             // no line segment includes totally the other one
-            divideSegment(sortedEvents.get(0), sortedEvents.get(1).point);
-            divideSegment(sortedEvents.get(1), sortedEvents.get(2).point);
+            divideSegment(sortedEvents[0], sortedEvents[1]);
+            divideSegment(sortedEvents[1], sortedEvents[2]);
             return 3;
         }
         // one line segment includes the other one
-        divideSegment(sortedEvents.get(0), sortedEvents.get(1).point);
-        divideSegment(sortedEvents.get(3).otherEvent, sortedEvents.get(2).point);
+        divideSegment(sortedEvents[0], sortedEvents[1]);
+        divideSegment(store.otherEvent(sortedEvents[3]), sortedEvents[2]);
         return 3;
     }
 
+    /**
+     * Divide the segment associated to left event le at the point of event e
+     */
+    private void divideSegment(int le, int e) {
+        divideSegment(le, store.x(e), store.y(e));
+    }
+
     /**
      * Divide the segment associated to left event le, updating pq and (implicitly) the status line
      */
-    private void divideSegment(SweepEvent le, Point p) {
+    private void divideSegment(int le, double x, double y) {
+
+        int other = store.otherEvent(le);
+        int polygonType = store.polygon(le);
 
         // "Right event" of the "left line segment" resulting from dividing le->segment ()
-        SweepEvent r = new SweepEvent(p, false, le, le.polygonType);
+        int r = store.add(x, y, false, le, polygonType);
         // "Left event" of the "right line segment" resulting from dividing le->segment ()
-        SweepEvent l = new SweepEvent(p, true, le.otherEvent, le.polygonType);
-        if (sweepEventComparator.compare(l, le.otherEvent) < 0) { // avoid a rounding error. The left event would be processed after the right event
-            le.otherEvent.left = true;
-            l.left = false;
+        int l = store.add(x, y, true, other, polygonType);
+        if (sweepEventComparator.compare(l, other) < 0) { // avoid a rounding error. The left event would be processed after the right event
+            store.setLeft(other, true);
+            store.setLeft(l, false);
         }
-        le.otherEvent.otherEvent = l;
-        le.otherEvent = r;
+        store.setOtherEvent(other, l);
+        store.setOtherEvent(le, r);
+        store.setWindDelta(l, store.windDelta(le));
+        store.setWindDelta(r, store.windDelta(le));
         sweepLine.eventQueue.add(l);
         sweepLine.eventQueue.add(r);
     }
@@ -322,16 +1128,16 @@ public class BooleanOperation {
     /**
      * return if the left event le belongs to the result of the boolean operation
      */
-    private boolean inResult(SweepEvent le) {
-        switch (le.type) {
+    private boolean inResult(int le) {
+        switch (store.edgeType(le)) {
             case NORMAL:
                 switch (operation) {
                     case INTERSECTION:
-                        return !le.otherInOut;
+                        return !store.otherInOut(le);
                     case UNION:
-                        return le.otherInOut;
+                        return store.otherInOut(le);
                     case DIFFERENCE:
-                        return (PolygonType.SUBJECT.equals(le.polygonType) && le.otherInOut) || (PolygonType.CLIPPING.equals(le.polygonType) && !le.otherInOut);
+                        return (store.polygon(le) == SUBJECT && store.otherInOut(le)) || (store.polygon(le) == CLIPPING && !store.otherInOut(le));
                     case XOR:
                         return true;
                 }
@@ -345,66 +1151,187 @@ public class BooleanOperation {
         throw new IllegalStateException("unexpected event type");
     }
 
+    /**
+     * Divide se and all segments overlapping it in sl at their endpoints, so the overlapping parts become equal segments.
+     * Only neighbors of se are divided by possibleIntersection, but all segments of a bundle have to be equal
+     * to merge their winding number deltas.
+     */
+    private void alignOverlappingSegments(int se) {
+        for (int event = sweepLine.statusLine.getPreviousEvent(se); event != NONE && overlapping(event, se); event = sweepLine.statusLine.getPreviousEvent(event)) {
+            alignOverlappingSegment(event, se);
+        }
+        for (int event = sweepLine.statusLine.getNextEvent(se); event != NONE && overlapping(event, se); event = sweepLine.statusLine.getNextEvent(event)) {
+            alignOverlappingSegment(event, se);
+        }
+    }
+
+    private void alignOverlappingSegment(int le, int se) {
+        if (!store.isCloseTo(le, se)) {
+            // le starts before se
+            divideSegment(le, se);
+            return;
+        }
+        int other = store.otherEvent(le);
+        int otherSe = store.otherEvent(se);
+        if (!store.isCloseTo(other, otherSe)) {
+            if (sweepEventComparator.compare(other, otherSe) < 0) {
+                divideSegment(le, otherSe);
+            } else {
+                divideSegment(se, other);
+            }
+        }
+    }
+
+    /**
+     * do the segments of left events le and se overlap in more than a point?
+     */
+    private boolean overlapping(int le, int se) {
+        int other = store.otherEvent(le);
+        int otherSe = store.otherEvent(se);
+        return store.collinear(se, store.x(le), store.y(le)) && store.collinear(se, store.x(other), store.y(other)) &&
+                !store.isCloseTo(other, se) && !store.isCloseTo(le, otherSe);
+    }
+
+    /**
+     * Merge the winding number deltas of the equal segments of left events le1 and le2.
+     * Of a bundle of equal segments in sl only one keeps the delta of the whole bundle,
+     * the others are marked as non contributing.
+     */
+    private void mergeWindDelta(int le1, int le2) {
+        boolean contributing1 = store.edgeType(le1) != EdgeType.NON_CONTRIBUTING;
+        boolean contributing2 = store.edgeType(le2) != EdgeType.NON_CONTRIBUTING;
+
+        int source = NONE;
+        int target = NONE;
+        if (contributing1 && contributing2) {
+            source = le1;
+            target = le2;
+        } else if (contributing1 || contributing2) {
+            // the non contributing segment already belongs to a bundle, find the segment keeping its delta
+            source = contributing1 ? le1 : le2;
+            target = contributingSegment(contributing1 ? le2 : le1, source);
+        }
+        if (target != NONE) {
+            setWindDelta(target, store.windDelta(source) + store.windDelta(target));
+            setWindDelta(source, 0);
+            store.setEdgeType(source, EdgeType.NON_CONTRIBUTING);
+        }
+
+        // recompute the fields of the bundle from bottom to top
+        int bottom = le1;
+        for (int prev = sweepLine.statusLine.getPreviousEvent(bottom); prev != NONE && sameSegment(prev, le1); prev = sweepLine.statusLine.getPreviousEvent(prev)) {
+            bottom = prev;
+        }
+        for (int event = bottom; event != NONE && sameSegment(event, le1); event = sweepLine.statusLine.getNextEvent(event)) {
+            computeWindingFields(event, sweepLine.statusLine.getPreviousEvent(event));
+        }
+    }
+
+    /**
+     * find the contributing segment of the bundle of equal segments containing le, ignoring segment exclude
+     */
+    private int contributingSegment(int le, int exclude) {
+        for (int event = le; event != NONE && sameSegment(event, le); event = sweepLine.statusLine.getPreviousEvent(event)) {
+            if (event != exclude && store.edgeType(event) != EdgeType.NON_CONTRIBUTING) {
+                return event;
+            }
+        }
+        for (int event = le; event != NONE && sameSegment(event, le); event = sweepLine.statusLine.getNextEvent(event)) {
+            if (event != exclude && store.edgeType(event) != EdgeType.NON_CONTRIBUTING) {
+                return event;
+            }
+        }
+        return NONE;
+    }
+
+    private boolean sameSegment(int le1, int le2) {
+        return store.isCloseTo(le1, le2) && store.isCloseTo(store.otherEvent(le1), store.otherEvent(le2));
+    }
+
+    /**
+     * set the winding number delta of both events of a segment
+     */
+    private void setWindDelta(int event, int delta) {
+        store.setWindDelta(event, delta);
+        store.setWindDelta(store.otherEvent(event), delta);
+    }
+
+    /**
+     * compute the winding number fields of left event le
+     */
+    private void computeWindingFields(int le, int prev) {
+        int windBelow = 0;
+        if (prev != NONE) {
+            // vertical segments do not change the winding number above them
+            windBelow = store.windBelow(prev) + (store.vertical(prev) ? 0 : store.windDelta(prev));
+            store.setPrevInResult(le, (!store.inResult(prev) || store.vertical(prev)) ? store.prevInResult(prev) : prev);
+        }
+        store.setWindBelow(le, windBelow);
+        // the segment belongs to the result if it separates winding numbers reaching the threshold from lower ones
+        store.setInResult(le, (windBelow >= windingThreshold) != (windBelow + store.windDelta(le) >= windingThreshold));
+    }
+
     /**
      * compute several fields of left event le
      */
-    private void computeFields(SweepEvent le, SweepEvent prev) {
+    private void computeFields(int le, int prev) {
+        if (winding) {
+            computeWindingFields(le, prev);
+            return;
+        }
         // compute inOut and otherInOut fields
-        if (prev == null) {
-            le.inOut = false;
-            le.otherInOut = true;
-        } else if (le.polygonType.equals(prev.polygonType)) {
+        if (prev == NONE) {
+            store.setInOut(le, false);
+            store.setOtherInOut(le, true);
+        } else if (store.polygon(le) == store.polygon(prev)) {
             // previous line segment in sl belongs to the same polygon that "se" belongs to
-            le.inOut = !prev.inOut;
-            le.otherInOut = prev.otherInOut;
+            store.setInOut(le, !store.inOut(prev));
+            store.setOtherInOut(le, store.otherInOut(prev));
         } else {
             // previous line segment in sl belongs to a different polygon that "se" belongs to
-            le.inOut = !prev.otherInOut;
-            le.otherInOut = prev.vertical() != prev.inOut;
+            store.setInOut(le, !store.otherInOut(prev));
+            store.setOtherInOut(le, store.vertical(prev) != store.inOut(prev));
         }
         // compute prevInResult field
-        if (prev != null) {
-            le.prevInResult = (!inResult(prev) || prev.vertical()) ? prev.prevInResult : prev;
+        if (prev != NONE) {
+            store.setPrevInResult(le, (!inResult(prev) || store.vertical(prev)) ? store.prevInResult(prev) : prev);
         }
         // check if the line segment belongs to the Boolean operation
-        le.inResult = inResult(le);
+        store.setInResult(le, inResult(le));
     }
 
     // connect the solution edges to build the result polygon
     private void connectEdges() {
         // copy the events in the result polygon to resultEvents array
-        List<SweepEvent> resultEvents = new ArrayList<>(sortedEvents.size());
 
-        for (SweepEvent event : sortedEvents) {
+        for (int i = 0; i < sortedEvents.size(); i++) {
+            int event = sortedEvents.get(i);
             // only left events are inResult
             // add these events and their corresponding other events
-            if ((event.left && event.inResult) || (!event.left && event.otherEvent.inResult)) {
+            if ((store.isLeft(event) && store.inResult(event)) || (!store.isLeft(event) && store.inResult(store.otherEvent(event)))) {
                 resultEvents.add(event);
             }
         }
 
-        resultEvents.sort(new SweepEventComparator(true));
+        resultEvents.sort(resultComparator);
 
         for (int i = 0; i < resultEvents.size(); ++i) {
-            SweepEvent event = resultEvents.get(i);
+            int event = resultEvents.get(i);
 
-            if (event.left) {
-                event.pos = i;
+            if (store.isLeft(event)) {
+                store.setPos(event, i);
             } else {
-                event.pos = event.otherEvent.pos;
-                event.otherEvent.pos = i;
+                int other = store.otherEvent(event);
+                store.setPos(event, store.pos(other));
+                store.setPos(other, i);
             }
         }
 
-        Set<Integer> processed = new HashSet<>(resultEvents.size());
-        List<Integer> depth = new ArrayList<>();
-        List<Integer> holeOf = new ArrayList<>();
-
         for (int i = 0; i < resultEvents.size(); i++) {
 
-            SweepEvent event = resultEvents.get(i);
+            int event = resultEvents.get(i);
 
-            if (processed.contains(i)) {
+            if (processed.get(i)) {
                 continue;
             }
 
@@ -412,63 +1339,69 @@ public class BooleanOperation {
             result.addContour(contour);
 
             int contourId = result.contourCount() - 1;
-            depth.add(0);
-            holeOf.add(-1);
-
-            if (event.prevInResult != null) {
-                int lowerContourId = event.prevInResult.contourId;
-                if (!event.prevInResult.resultInOut) {
-                    result.contour(lowerContourId).addHole(contourId);
-                    holeOf.set(contourId, lowerContourId);
-                    depth.set(contourId, depth.get(lowerContourId) + 1);
+            contour.setParent(-1, 0);
+
+            // the hole hierarchy follows from the result contour below the first event of the contour
+            int prevInResult = store.prevInResult(event);
+            if (prevInResult != NONE) {
+                Contour lower = result.contour(store.contourId(prevInResult));
+                if (!store.resultInOut(prevInResult)) {
+                    lower.addHole(contourId);
+                    contour.setParent(store.contourId(prevInResult), lower.getDepth() + 1);
                     contour.setIsHole(true);
-                } else if (result.contour(lowerContourId).isHole()) {
-                    result.contour(holeOf.get(lowerContourId)).addHole(contourId);
-                    holeOf.set(contourId, holeOf.get(lowerContourId));
-                    depth.set(contourId, depth.get(lowerContourId));
+                } else if (lower.isHole()) {
+                    result.contour(lower.getParent()).addHole(contourId);
+                    contour.setParent(lower.getParent(), lower.getDepth());
                     contour.setIsHole(true);
                 }
             }
 
             int pos = i;
-            Point initial = event.point;
-            contour.add(initial);
-
-            while (!resultEvents.get(pos).otherEvent.point.isCloseTo(initial)) {
-                processed.add(pos);
-                if (resultEvents.get(pos).left) {
-                    resultEvents.get(pos).resultInOut = false;
-                    resultEvents.get(pos).contourId = contourId;
+            double initialX = store.x(event);
+            double initialY = store.y(event);
+            addResultPoint(contour, event);
+
+            while (!isCloseTo(store.otherEvent(resultEvents.get(pos)), initialX, initialY)) {
+                int posEvent = resultEvents.get(pos);
+                processed.set(pos);
+                if (store.isLeft(posEvent)) {
+                    store.setResultInOut(posEvent, false);
+                    store.setContourId(posEvent, contourId);
                 } else {
-                    resultEvents.get(pos).otherEvent.resultInOut = true;
-                    resultEvents.get(pos).otherEvent.contourId = contourId;
+                    store.setResultInOut(store.otherEvent(posEvent), true);
+                    store.setContourId(store.otherEvent(posEvent), contourId);
                 }
-                pos = resultEvents.get(pos).pos;
-                processed.add(pos);
-                contour.add(resultEvents.get(pos).point);
-                pos = nextPos(pos, resultEvents, processed);
-            }
-            processed.add(resultEvents.get(pos).pos);
-            processed.add(pos);
-            resultEvents.get(pos).otherEvent.resultInOut = true;
-            resultEvents.get(pos).otherEvent.contourId = contourId;
-            if (depth.get(contourId) % 2 == 1) {
+                pos = store.pos(posEvent);
+                processed.set(pos);
+                addResultPoint(contour, resultEvents.get(pos));
+                pos = nextPos(pos);
+            }
+            int posEvent = resultEvents.get(pos);
+            processed.set(store.pos(posEvent));
+            processed.set(pos);
+            store.setResultInOut(store.otherEvent(posEvent), true);
+            store.setContourId(store.otherEvent(posEvent), contourId);
+            if (contour.getDepth() % 2 == 1) {
                 contour.changeOrientation();
             }
         }
     }
 
-    private int nextPos(int pos, List<SweepEvent> resultEvents, Set<Integer> processed) {
+    private boolean isCloseTo(int event, double x, double y) {
+        return Point.isCloseTo(store.x(event), store.y(event), x, y);
+    }
+
+    private int nextPos(int pos) {
         int newPos = pos + 1;
-        while (newPos < resultEvents.size() && resultEvents.get(newPos).point.isCloseTo(resultEvents.get(pos).point)) {
-            if (!processed.contains(newPos)) {
+        while (newPos < resultEvents.size() && store.isCloseTo(resultEvents.get(newPos), resultEvents.get(pos))) {
+            if (!processed.get(newPos)) {
                 return newPos;
             } else {
                 ++newPos;
             }
         }
         newPos = pos - 1;
-        while (processed.contains(newPos)) {
+        while (newPos >= 0 && processed.get(newPos)) {
             --newPos;
         }
 
@@ -0,0 +1,104 @@
+package com.github.randomdwi.polygonclipping;
+
+import com.github.randomdwi.polygonclipping.geometry.BoundingBox;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Union of many polygons as balanced tree reduction.
+ * <p>
+ * The polygons are ordered along a z-order curve of their bounding box centers, so neighboring polygons
+ * in the order are spatially close. Each task unions two halves of the order, which keeps the sweeps small
+ * and lets the halves run in parallel on a {@link java.util.concurrent.ForkJoinPool}.
+ */
+class CascadedUnion extends RecursiveTask<Polygon> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Polygon[] polygons;
+    private final int from;
+    private final int to;
+
+    /**
+     * Create union task for polygons.
+     *
+     * @param polygons the polygons
+     */
+    CascadedUnion(Collection<Polygon> polygons) {
+        this(sortSpatially(polygons), 0, polygons.size());
+    }
+
+    private CascadedUnion(Polygon[] polygons, int from, int to) {
+        this.polygons = polygons;
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    protected Polygon compute() {
+        int count = to - from;
+        if (count == 0) {
+            return new Polygon();
+        }
+        if (count == 1) {
+            return polygons[from];
+        }
+        if (count == 2) {
+            return BooleanOperation.UNION(polygons[from], polygons[from + 1]);
+        }
+
+        int mid = (from + to) >>> 1;
+        CascadedUnion left = new CascadedUnion(polygons, from, mid);
+        CascadedUnion right = new CascadedUnion(polygons, mid, to);
+        left.fork();
+        Polygon rightResult = right.compute();
+        return BooleanOperation.UNION(left.join(), rightResult);
+    }
+
+    private static Polygon[] sortSpatially(Collection<Polygon> polygons) {
+
+        Polygon[] array = polygons.toArray(new Polygon[0]);
+        BoundingBox[] boxes = new BoundingBox[array.length];
+        BoundingBox total = BoundingBox.empty();
+        for (int i = 0; i < array.length; i++) {
+            boxes[i] = array[i].boundingBox();
+            if (!array[i].isEmpty()) {
+                total.combine(boxes[i]);
+            }
+        }
+
+        double scaleX = total.getWidth() > 0 ? 0x7FFF / total.getWidth() : 0;
+        double scaleY = total.getHeight() > 0 ? 0x7FFF / total.getHeight() : 0;
+
+        long[] keys = new long[array.length];
+        for (int i = 0; i < array.length; i++) {
+            long code = 0;
+            if (!array[i].isEmpty()) {
+                int x = (int) (((boxes[i].xMin + boxes[i].xMax) * 0.5 - total.xMin) * scaleX);
+                int y = (int) (((boxes[i].yMin + boxes[i].yMax) * 0.5 - total.yMin) * scaleY);
+                code = interleave(x) | (interleave(y) << 1);
+            }
+            // z-order code in the upper bits, index in the lower bits
+            keys[i] = (code << 32) | i;
+        }
+        Arrays.sort(keys);
+
+        Polygon[] sorted = new Polygon[array.length];
+        for (int i = 0; i < keys.length; i++) {
+            sorted[i] = array[(int) keys[i]];
+        }
+        return sorted;
+    }
+
+    // spread the lower 15 bits of value to the even bit positions
+    private static long interleave(int value) {
+        long v = value & 0x7FFF;
+        v = (v | (v << 8)) & 0x00FF00FFL;
+        v = (v | (v << 4)) & 0x0F0F0F0FL;
+        v = (v | (v << 2)) & 0x33333333L;
+        v = (v | (v << 1)) & 0x55555555L;
+        return v;
+    }
+}
@@ -0,0 +1,82 @@
+package com.github.randomdwi.polygonclipping;
+
+import com.github.randomdwi.polygonclipping.geometry.Contour;
+import com.github.randomdwi.polygonclipping.sweepline.EventStore;
+import com.github.randomdwi.polygonclipping.sweepline.SweepLineStatus;
+
+import java.util.List;
+
+/**
+ * Receives trace events of boolean operations and polygon offsets, e.g. for debugging or drawing.
+ * <p>
+ * All methods do nothing by default. Listeners are called synchronously from the computing thread,
+ * the passed event store and status line are only valid during the call.
+ */
+public interface DiagnosticsListener {
+
+    /**
+     * Listener ignoring all events.
+     */
+    DiagnosticsListener NONE = new DiagnosticsListener() {
+    };
+
+    /**
+     * A boolean operation is started.
+     *
+     * @param subject   subject polygon
+     * @param clipping  clipping polygon
+     * @param operation the operation
+     */
+    default void operationStarted(Polygon subject, Polygon clipping, BooleanOperation.Type operation) {
+    }
+
+    /**
+     * A boolean operation failed.
+     *
+     * @param subject   subject polygon
+     * @param clipping  clipping polygon
+     * @param operation the operation
+     * @param exception the failure
+     */
+    default void operationFailed(Polygon subject, Polygon clipping, BooleanOperation.Type operation, RuntimeException exception) {
+    }
+
+    /**
+     * The segment of a left event has been inserted into the status line.
+     *
+     * @param store      store containing the events
+     * @param statusLine the status line
+     * @param event      the left event
+     */
+    default void segmentAdded(EventStore store, SweepLineStatus statusLine, int event) {
+    }
+
+    /**
+     * The segment of a left event has been removed from the status line.
+     *
+     * @param store      store containing the events
+     * @param statusLine the status line
+     * @param event      the left event
+     */
+    default void segmentRemoved(EventStore store, SweepLineStatus statusLine, int event) {
+    }
+
+    /**
+     * The offset rectangles and arcs of a contour have been created.
+     *
+     * @param contour        the contour
+     * @param offsetContours offset rectangles and arcs
+     */
+    default void offsetContoursCreated(Contour contour, List<Contour> offsetContours) {
+    }
+
+    /**
+     * Combining a contour with its offset rectangles and arcs failed.
+     *
+     * @param contour        the contour
+     * @param offsetContours offset rectangles and arcs
+     * @param exception      the failure
+     */
+    default void offsetFailed(Contour contour, List<Contour> offsetContours, RuntimeException exception) {
+    }
+}
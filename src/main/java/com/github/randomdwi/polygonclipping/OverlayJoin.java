@@ -0,0 +1,82 @@
+package com.github.randomdwi.polygonclipping;
+
+import com.github.randomdwi.polygonclipping.geometry.BoundingBox;
+import com.github.randomdwi.polygonclipping.utils.IntList;
+import com.github.randomdwi.polygonclipping.utils.RTree;
+
+import java.util.List;
+
+/**
+ * Intersection of the polygons of two layers, e.g. parcels clipped against zones.
+ * <p>
+ * The clipping layer is indexed once in an {@link RTree}. For every subject polygon only the clipping
+ * polygons with an intersecting bounding box are candidates, pairs with disjoint bounding boxes are never computed.
+ * A clipping polygon is prepared the first time it is a candidate and reused for all further subjects.
+ * The polygons must not be modified while the join is used.
+ */
+public class OverlayJoin {
+
+    /**
+     * Receives the result of a candidate pair.
+     */
+    @FunctionalInterface
+    public interface PairConsumer {
+
+        /**
+         * Accept the non-empty intersection of a pair.
+         *
+         * @param subjectIndex  index of the subject polygon
+         * @param clippingIndex index of the clipping polygon
+         * @param result        intersection of the pair
+         */
+        void accept(int subjectIndex, int clippingIndex, Polygon result);
+    }
+
+    private final List<Polygon> clippings;
+    private final RTree index;
+    private final PreparedPolygon[] prepared;
+    private final BooleanOperation workspace = new BooleanOperation();
+
+    /**
+     * Create a join with a clipping layer.
+     *
+     * @param clippings polygons of the clipping layer
+     */
+    public OverlayJoin(List<Polygon> clippings) {
+        this.clippings = clippings;
+        this.index = RTree.of(clippings);
+        this.prepared = new PreparedPolygon[clippings.size()];
+    }
+
+    /**
+     * Compute the intersection of every subject with every clipping polygon it overlaps.
+     * Only pairs with intersecting bounding boxes are computed, the intersection of all other pairs is empty.
+     * Pairs are passed in the order of the subjects, clipping polygons of a subject are ordered by index.
+     *
+     * @param subjects polygons of the subject layer
+     * @param consumer receives the non-empty intersections
+     */
+    public void intersection(List<Polygon> subjects, PairConsumer consumer) {
+        IntList candidates = new IntList();
+
+        for (int s = 0; s < subjects.size(); s++) {
+            Polygon subject = subjects.get(s);
+            BoundingBox subjectBB = subject.boundingBox();
+
+            candidates.clear();
+            index.search(subjectBB, candidates::add);
+            candidates.sort(Integer::compare);
+
+            for (int i = 0; i < candidates.size(); i++) {
+                int c = candidates.get(i);
+                if (prepared[c] == null) {
+                    prepared[c] = new PreparedPolygon(clippings.get(c));
+                }
+                Polygon result = workspace.executePrepared(subject, prepared[c], BooleanOperation.Type.INTERSECTION);
+                if (!result.isEmpty()) {
+                    consumer.accept(s, c, result);
+                }
+            }
+        }
+    }
+}
@@ -3,21 +3,27 @@ package com.github.randomdwi.polygonclipping;
 
 import com.github.randomdwi.polygonclipping.geometry.BoundingBox;
 import com.github.randomdwi.polygonclipping.geometry.Contour;
-import com.github.randomdwi.polygonclipping.geometry.Point;
-import com.github.randomdwi.polygonclipping.segment.Segment;
 import com.github.randomdwi.polygonclipping.segment.SegmentComparator;
-import com.github.randomdwi.polygonclipping.sweepline.SweepEvent;
+import com.github.randomdwi.polygonclipping.sweepline.EventStore;
 import com.github.randomdwi.polygonclipping.sweepline.SweepLine;
-import com.github.randomdwi.polygonclipping.utils.ReaderUtil;
+import com.github.randomdwi.polygonclipping.utils.PolygonReader;
 
 import java.io.*;
 import java.util.*;
 import java.util.stream.Collectors;
 
+import static com.github.randomdwi.polygonclipping.sweepline.EventStore.NONE;
+
 public class Polygon {
 
     private List<Contour> contours = new ArrayList<>();
 
+    // cached bounding box, valid as long as the same contours are unmodified, see isBoundingBoxValid()
+    private BoundingBox boundingBox;
+    private Contour[] boundingBoxContours = new Contour[0];
+    private int[] boundingBoxModifications = new int[0];
+    private int boundingBoxContourCount;
+
     /**
      * Instantiates an empty Polygon.
      */
@@ -25,7 +31,7 @@ public class Polygon {
     }
 
     /**
-     * Instantiates an empty Polygon.
+     * Instantiates a Polygon from contours. The holes are computed.
      *
      * @param contours the contours
      */
@@ -41,92 +47,20 @@ public class Polygon {
      * @throws IOException error reading input file
      */
     public Polygon(File file) throws IOException {
-        new Polygon(new FileInputStream(file));
+        this(new FileInputStream(file));
     }
 
     /**
-     * Instantiates a new Polygon.
+     * Instantiates a new Polygon. The input stream is closed after reading.
      *
      * @param inputStream input stream defining the polygon
      * @throws IOException error reading input stream
      */
     public Polygon(InputStream inputStream) throws IOException {
-
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream))) {
-
-            // read the contours
-            int contourCount = ReaderUtil.toInt(reader.readLine());
-            int readContours = 0;
-            String line;
-
-            while (reader.ready() && readContours < contourCount) {
-
-                Contour contour = new Contour();
-                contours.add(contour);
-
-                line = reader.readLine().trim();
-                if (line.startsWith("#")) {
-                    // skip comments
-                    continue;
-                }
-
-                int pointCount = ReaderUtil.toInt(line);
-                int readPoints = 0;
-
-                while (reader.ready() && readPoints < pointCount) {
-
-                    line = reader.readLine().trim();
-                    if (line.startsWith("#")) {
-                        // skip comments
-                        continue;
-                    }
-
-                    List<Double> coords = ReaderUtil.toDoubleList(line);
-                    double px = coords.get(0);
-                    double py = coords.get(1);
-
-                    if (readPoints > 0 && px == contour.lastPoint().x && py == contour.lastPoint().y) {
-                        continue;
-                    }
-                    if (readPoints == pointCount - 1 && px == contour.getPoint(0).x && py == contour.getPoint(0).y) {
-                        continue;
-                    }
-
-                    contour.add(new Point(px, py));
-                    readPoints++;
-                }
-
-                if (readPoints != pointCount) {
-                    throw new IllegalArgumentException("not enough points: " + readPoints + "<" + pointCount);
-                }
-
-                if (contour.pointCount() < 3) {
-                    // not a valid contour, remove it
-                    removeLastContour();
-                }
-
-                readContours++;
-            }
-
-            if (readContours != contourCount) {
-                throw new IllegalArgumentException("not enough contours: " + readContours + "<" + contourCount);
-            }
-
-            // read holes information
-            while (reader.ready()) {
-                String[] parts = reader.readLine().split(":");
-
-                int contourId = ReaderUtil.toInt(parts[0]);
-                List<Integer> holes = ReaderUtil.toIntegerList(parts[1]);
-
-                holes.forEach(hole -> {
-                    contour(contourId).addHole(hole);
-                    contour(hole).setIsHole(true);
-                });
-            }
+        try (InputStream in = inputStream) {
+            contours = new PolygonReader(in).readContours();
         }
-
-        inputStream.close();
+        linkHoles();
     }
 
     /**
@@ -167,14 +101,50 @@ public class Polygon {
     }
 
     /**
-     * Get boundingBox of the polygon.
+     * Get boundingBox of the polygon. The bounding box is cached and combined again from the cached bounding boxes
+     * of the contours when contours are added, removed or modified. A copy of it is returned.
      *
      * @return the bounding box
      */
     public BoundingBox boundingBox() {
-        BoundingBox boundingBox = new BoundingBox();
-        contours.forEach(c -> boundingBox.combine(c.boundingBox()));
-        return boundingBox;
+        if (!isBoundingBoxValid()) {
+            BoundingBox combined = BoundingBox.empty();
+            for (Contour contour : contours) {
+                combined.combine(contour.boundingBox());
+            }
+            boundingBox = combined;
+            boundingBoxContourCount = 0;
+            contours.forEach(this::addBoundingBoxContour);
+        }
+        return new BoundingBox(boundingBox.xMin, boundingBox.yMin, boundingBox.xMax, boundingBox.yMax);
+    }
+
+    /**
+     * The cached bounding box is valid if the contours are the ones it was combined from, in the same order and with
+     * the same modification counts. Contours replaced through {@link #getContours()} are detected as well.
+     */
+    private boolean isBoundingBoxValid() {
+        if (boundingBox == null || boundingBoxContourCount != contours.size()) {
+            return false;
+        }
+        for (int i = 0; i < boundingBoxContourCount; i++) {
+            Contour contour = contours.get(i);
+            if (contour != boundingBoxContours[i] || contour.modificationCount() != boundingBoxModifications[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void addBoundingBoxContour(Contour contour) {
+        if (boundingBoxContourCount == boundingBoxContours.length) {
+            int length = Math.max(8, 2 * boundingBoxContourCount);
+            boundingBoxContours = Arrays.copyOf(boundingBoxContours, length);
+            boundingBoxModifications = Arrays.copyOf(boundingBoxModifications, length);
+        }
+        boundingBoxContours[boundingBoxContourCount] = contour;
+        boundingBoxModifications[boundingBoxContourCount] = contour.modificationCount();
+        boundingBoxContourCount++;
     }
 
     /**
@@ -184,7 +154,14 @@ public class Polygon {
      * @param dy distance in y direction
      */
     public void move(double dx, double dy) {
+        boolean valid = isBoundingBoxValid();
         contours.forEach(c -> c.move(dx, dy));
+        if (valid) {
+            boundingBox = new BoundingBox(boundingBox.xMin + dx, boundingBox.yMin + dy, boundingBox.xMax + dx, boundingBox.yMax + dy);
+            for (int i = 0; i < boundingBoxContourCount; i++) {
+                boundingBoxModifications[i] = boundingBoxContours[i].modificationCount();
+            }
+        }
     }
 
     /**
@@ -194,13 +171,17 @@ public class Polygon {
      */
     public void join(Polygon polygon) {
 
-        Polygon polygonCopy = polygon.copy();
+        int offset = contourCount();
 
-        for (Contour contour : polygonCopy.contours) {
-            addContour(contour);
+        for (Contour contour : polygon.contours) {
+            Contour contourCopy = contour.copy();
 
-            // shift the hole indices
-            contour.setHoles(contour.getHoles().stream().map(h -> h + contourCount()).collect(Collectors.toList()));
+            // shift the hole and parent indices
+            contourCopy.setHoles(contour.getHoles().stream().map(h -> h + offset).collect(Collectors.toList()));
+            if (contour.getParent() >= 0) {
+                contourCopy.setParent(contour.getParent() + offset, contour.getDepth());
+            }
+            addContour(contourCopy);
         }
     }
 
@@ -239,17 +220,41 @@ public class Polygon {
      * @return contours
      */
     public List<Contour> getOrderedContours() {
-
-        List<Contour> contours = getExternalContours();
-
-        for (int i=0; i < contours.size(); i++) {
-            contours.get(i).getHoles().stream()
-                    .map(this::contour)
-                    .filter(h -> !contours.contains(h))
-                    .forEach(contours::add);
+        int[] order = getOrderedContourIndexes();
+        List<Contour> ordered = new ArrayList<>(order.length);
+        for (int index : order) {
+            ordered.add(contour(index));
         }
+        return ordered;
+    }
 
-        return contours;
+    /**
+     * Get the indexes of all contours, ordered from outside to inside: the external contours,
+     * followed by their holes, the holes of the holes and so on. Every contour is listed once.
+     *
+     * @return contour indexes
+     */
+    public int[] getOrderedContourIndexes() {
+        int[] order = new int[contours.size()];
+        boolean[] listed = new boolean[contours.size()];
+        int count = 0;
+        for (int i = 0; i < contours.size(); i++) {
+            if (!contour(i).isHole()) {
+                listed[i] = true;
+                order[count++] = i;
+            }
+        }
+        for (int next = 0; next < count; next++) {
+            Contour contour = contour(order[next]);
+            for (int h = 0; h < contour.holeCount(); h++) {
+                int hole = contour.getHole(h);
+                if (!listed[hole]) {
+                    listed[hole] = true;
+                    order[count++] = hole;
+                }
+            }
+        }
+        return count == order.length ? order : Arrays.copyOf(order, count);
     }
 
     /**
@@ -259,6 +264,11 @@ public class Polygon {
      */
     public void addContour(Contour contour) {
         contours.add(contour);
+        if (boundingBox != null && boundingBoxContourCount == contours.size() - 1) {
+            // the box is checked for the previous contours when it is used
+            boundingBox = BoundingBox.empty().combine(boundingBox).combine(contour.boundingBox());
+            addBoundingBoxContour(contour);
+        }
     }
 
     /**
@@ -275,6 +285,7 @@ public class Polygon {
      */
     public void removeLastContour() {
         contours.remove(contours.size() - 1);
+        boundingBox = null;
     }
 
     /**
@@ -284,6 +295,7 @@ public class Polygon {
      */
     public void removeContour(int index) {
         contours.remove(index);
+        boundingBox = null;
     }
 
     /**
@@ -291,6 +303,59 @@ public class Polygon {
      */
     public void clear() {
         contours.clear();
+        boundingBox = null;
+    }
+
+    /**
+     * Check whether the parent and depth of every contour are set and consistent with the hole lists,
+     * see {@link Contour#getParent()}.
+     *
+     * @return hole hierarchy is known
+     */
+    public boolean hasHoleHierarchy() {
+        int holeCount = 0;
+        for (int i = 0; i < contours.size(); i++) {
+            Contour contour = contour(i);
+            int parent = contour.getParent();
+            if (contour.getDepth() < 0 || parent >= contours.size() || contour.isHole() != (parent >= 0)) {
+                return false;
+            }
+            int parentDepth = parent >= 0 ? contour(parent).getDepth() : -1;
+            if (contour.getDepth() != parentDepth + 1) {
+                return false;
+            }
+            for (int hole : contour.getHoles()) {
+                if (hole < 0 || hole >= contours.size() || contour(hole).getParent() != i) {
+                    return false;
+                }
+            }
+            holeCount += contour.holeCount();
+            if (parent >= 0) {
+                holeCount--;
+            }
+        }
+        return holeCount == 0;
+    }
+
+    /**
+     * Set parent and depth of every contour from the hole lists, without computing the holes.
+     */
+    public void linkHoles() {
+        contours.forEach(c -> c.setParent(-1, -1));
+        for (int i = 0; i < contours.size(); i++) {
+            for (int hole : contour(i).getHoles()) {
+                contour(hole).setParent(i, -1);
+            }
+        }
+        for (Contour contour : contours) {
+            int depth = 0;
+            for (int p = contour.getParent(); p >= 0; p = contour(p).getParent()) {
+                if (++depth > contours.size()) {
+                    throw new IllegalArgumentException("cyclic hole hierarchy");
+                }
+            }
+            contour.setParent(contour.getParent(), depth);
+        }
     }
 
     /**
@@ -298,7 +363,11 @@ public class Polygon {
      */
     public void computeHoles() {
 
-        contours.forEach(c -> c.getHoles().clear());
+        contours.forEach(c -> {
+            c.getHoles().clear();
+            c.setIsHole(false);
+            c.setParent(-1, 0);
+        });
 
         if (contours.size() < 2) {
             if (contours.size() == 1) {
@@ -307,29 +376,37 @@ public class Polygon {
             return;
         }
 
-        SweepLine sweepLine = new SweepLine(new SegmentComparator(true));
+        EventStore store = new EventStore(pointCount() * 2);
+        SweepLine sweepLine = new SweepLine(new SegmentComparator(store, true));
 
         for (int i = 0; i < contours.size(); i++) {
-            contour(i).setCounterClockwise();
-            for (int j = 0; j < contour(i).edgeCount(); j++) {
-                Segment s = contour(i).segment(j);
-                if (s.isVertical()) { // vertical segments are not processed
+            Contour contour = contour(i);
+            contour.setCounterClockwise();
+            for (int j = 0; j < contour.edgeCount(); j++) {
+                int next = (j + 1) % contour.pointCount();
+                double xBegin = contour.x(j);
+                double yBegin = contour.y(j);
+                double xEnd = contour.x(next);
+                double yEnd = contour.y(next);
+                if (xBegin == xEnd) { // vertical segments are not processed
                     continue;
                 }
 
-                SweepEvent sBegin;
-                SweepEvent sEnd;
+                int sBegin;
+                int sEnd;
 
-                if (s.pBegin.x < s.pEnd.x) {
-                    sBegin = new SweepEvent(s.pBegin, true, i, false);
-                    sEnd = new SweepEvent(s.pEnd, false, i, true);
+                if (xBegin < xEnd) {
+                    sBegin = store.add(xBegin, yBegin, true, NONE, i);
+                    sEnd = store.add(xEnd, yEnd, false, sBegin, i);
+                    store.setInOut(sEnd, true);
                 } else {
-                    sBegin = new SweepEvent(s.pBegin, false, i, true);
-                    sEnd = new SweepEvent(s.pEnd, true, i, true);
+                    sBegin = store.add(xBegin, yBegin, false, NONE, i);
+                    store.setInOut(sBegin, true);
+                    sEnd = store.add(xEnd, yEnd, true, sBegin, i);
+                    store.setInOut(sEnd, true);
                 }
 
-                sBegin.otherEvent = sEnd;
-                sEnd.otherEvent = sBegin;
+                store.setOtherEvent(sBegin, sEnd);
 
                 sweepLine.eventQueue.add(sBegin);
                 sweepLine.eventQueue.add(sEnd);
@@ -341,32 +418,34 @@ public class Polygon {
 
         while (!sweepLine.eventQueue.isEmpty() && processedPolygons.size() < contours.size()) {
 
-            SweepEvent e = sweepLine.eventQueue.poll();
+            int e = sweepLine.eventQueue.poll();
+            int polygon = store.polygon(e);
 
-            if (e.left) {
+            if (store.isLeft(e)) {
                 // the segment must be inserted into S
                 sweepLine.statusLine.addEvent(e);
 
-                if (!processedPolygons.contains(e.polygon)) {
-                    processedPolygons.add(e.polygon);
+                if (!processedPolygons.contains(polygon)) {
+                    processedPolygons.add(polygon);
 
-                    SweepEvent prev = sweepLine.statusLine.getPreviousEvent(e);
+                    int prev = sweepLine.statusLine.getPreviousEvent(e);
 
-                    if (prev == null) {
-                        contour(e.polygon).setCounterClockwise();
+                    if (prev == NONE) {
+                        contour(polygon).setCounterClockwise();
                     } else {
-                        if (!prev.inOut) {
-                            addHole(holeMap, e.polygon, prev.polygon);
-                        } else if (holeMap.containsKey(prev.polygon)) {
-                            addHole(holeMap, e.polygon, holeMap.get(prev.polygon));
+                        int prevPolygon = store.polygon(prev);
+                        if (!store.inOut(prev)) {
+                            addHole(holeMap, polygon, prevPolygon);
+                        } else if (holeMap.containsKey(prevPolygon)) {
+                            addHole(holeMap, polygon, holeMap.get(prevPolygon));
                         } else {
-                            contour(e.polygon).setCounterClockwise();
+                            contour(polygon).setCounterClockwise();
                         }
                     }
                 }
             } else {
                 // the segment must be removed from S
-                sweepLine.statusLine.removeEvent(e.otherEvent);
+                sweepLine.statusLine.removeEvent(store.otherEvent(e));
             }
         }
     }
@@ -374,6 +453,7 @@ public class Polygon {
     private void addHole(Map<Integer, Integer> holeMap, int holeContourIndex, int contourWithHoleIndex) {
         holeMap.put(holeContourIndex, contourWithHoleIndex);
         contour(holeContourIndex).setIsHole(true);
+        contour(holeContourIndex).setParent(contourWithHoleIndex, contour(contourWithHoleIndex).getDepth() + 1);
         contour(contourWithHoleIndex).addHole(holeContourIndex);
 
         if (contour(contourWithHoleIndex).counterClockwise()) {
@@ -1,17 +1,13 @@
 package com.github.randomdwi.polygonclipping;
 
-import com.github.randomdwi.polygonclipping.drawing.PolygonDraw;
 import com.github.randomdwi.polygonclipping.geometry.Contour;
 import com.github.randomdwi.polygonclipping.geometry.Point;
 import com.github.randomdwi.polygonclipping.segment.Segment;
 
-import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Set;
-import java.util.function.BiFunction;
+import java.util.Objects;
 
 public class PolygonOffset {
 
@@ -20,6 +16,9 @@ public class PolygonOffset {
     //An odd number so that one arc vertex will be exactly arcRadius from center.
     private int arcSegmentCount = 5;
 
+    private final BooleanOperation booleanOperation = new BooleanOperation();
+    private DiagnosticsListener diagnosticsListener = DiagnosticsListener.NONE;
+
     /**
      * Create offset polygon polygon.
      *
@@ -31,6 +30,16 @@ public class PolygonOffset {
         return new PolygonOffset().create(polygon, offset);
     }
 
+    /**
+     * Set the listener receiving trace events of the offset computation, by default {@link DiagnosticsListener#NONE}.
+     *
+     * @param diagnosticsListener the listener
+     */
+    public void setDiagnosticsListener(DiagnosticsListener diagnosticsListener) {
+        this.diagnosticsListener = Objects.requireNonNull(diagnosticsListener);
+        booleanOperation.setDiagnosticsListener(diagnosticsListener);
+    }
+
     Contour createArcContour(Point center, double radius, Point arcStart, Point arcEnd) {
 
         double startAngle = Math.atan2(arcStart.y - center.y, arcStart.x - center.x);
@@ -97,42 +106,40 @@ public class PolygonOffset {
             return polygon;
         }
 
-        Set<Contour> processed = new HashSet<>();
+        boolean[] processed = new boolean[polygon.contourCount()];
 
-        final Polygon[] offsetPolygon = {polygon};
+        Polygon offsetPolygon = polygon;
 
-        polygon.getOrderedContours().stream()
-                .filter(contour -> !processed.contains(contour))
-                .forEach(contour -> {
+        for (int index : polygon.getOrderedContourIndexes()) {
+            if (processed[index]) {
+                continue;
+            }
 
-            if (contour.isHole()) {
+            if (polygon.contour(index).isHole()) {
                 throw new IllegalStateException("should not be a hole");
             }
 
-            Polygon offsetContour = createOffsetRecursive(polygon, offset, processed, contour, false);
+            Polygon offsetContour = createOffsetRecursive(polygon, offset, processed, index, false);
 
-            offsetPolygon[0] = BooleanOperation.UNION(offsetPolygon[0], offsetContour);
-        });
+            offsetPolygon = booleanOperation.union(offsetPolygon, offsetContour);
+        }
 
-        return offsetPolygon[0];
+        return offsetPolygon;
     }
 
-    private Polygon createOffsetRecursive(Polygon polygon, double offset, Set<Contour> processed,
-                                          Contour contour, boolean isHole) {
-
-        Polygon offsetContour = create(contour, offset, isHole);
-        processed.add(contour);
+    private Polygon createOffsetRecursive(Polygon polygon, double offset, boolean[] processed,
+                                          int index, boolean isHole) {
 
-        final Polygon[] offsetPolygon = {offsetContour};
+        Contour contour = polygon.contour(index);
+        Polygon offsetPolygon = create(contour, offset, isHole);
+        processed[index] = true;
 
-        contour.getHoles().stream()
-                .map(polygon::contour)
-                .forEach(holeContour -> {
-                    Polygon offsetHole = createOffsetRecursive(polygon, offset, processed, holeContour, !isHole);
+        for (int h = 0; h < contour.holeCount(); h++) {
+            Polygon offsetHole = createOffsetRecursive(polygon, offset, processed, contour.getHole(h), !isHole);
 
-                    offsetPolygon[0] = BooleanOperation.DIFFERENCE(offsetPolygon[0], offsetHole);
-                });
-        return offsetPolygon[0];
+            offsetPolygon = booleanOperation.difference(offsetPolygon, offsetHole);
+        }
+        return offsetPolygon;
     }
 
     public Polygon create(Contour contour, double offset) {
@@ -170,44 +177,31 @@ public class PolygonOffset {
 
         boolean isOuterOffsetContour = (offset > 0);
 
-        if ((isOuterOffsetContour && !isHole) || (!isOuterOffsetContour && isHole)) {
-            return apply(contour, BooleanOperation::UNION, offsetContours);
-        } else {
-            return apply(contour, BooleanOperation::DIFFERENCE, offsetContours);
-        }
+        return apply(contour, (isOuterOffsetContour && !isHole) || (!isOuterOffsetContour && isHole), offsetContours);
     }
 
-    private Polygon apply(Contour contour, BiFunction<Polygon, Polygon, Polygon> operation, List<Contour> offsetContours) {
-
-        PolygonDraw.drawPolygonImage(200, 200, new Polygon(offsetContours), "offsetContours.png");
-
-        Polygon polygon = Polygon.from(contour.copy());
-        int i = 0;
-        for (Contour offsetContour : offsetContours) {
-            PolygonDraw.drawPolygonImage(200, 200, polygon, "subject" + i + ".png");
-            PolygonDraw.drawPolygonImage(200, 200, Polygon.from(offsetContour), "clipping" + i + ".png");
-
-            Polygon tmp;
-
-            try {
-                tmp = operation.apply(polygon, Polygon.from(offsetContour));
-            } catch (Exception ex) {
-                System.out.println("ill");
-                try {
-                    polygon.serialize(new FileOutputStream("subject.pol"));
-                    Polygon.from(offsetContour).serialize(new FileOutputStream("clipping.pol"));
-                } catch (FileNotFoundException e) {
-                    e.printStackTrace();
-                }
-                throw ex;
-            }
+    /**
+     * Compute union or difference of the contour with all offset contours in a single sweep.
+     * The union is the region covered by any contour, the difference the region covered by the contour only.
+     */
+    private Polygon apply(Contour contour, boolean union, List<Contour> offsetContours) {
 
-            polygon = tmp;
+        diagnosticsListener.offsetContoursCreated(contour, offsetContours);
 
-            PolygonDraw.drawPolygonImage(200, 200, polygon, "result" + i++ + ".png");
-        }
+        List<Contour> contours = new ArrayList<>(offsetContours.size() + 1);
+        contours.add(contour);
+        contours.addAll(offsetContours);
 
-        return polygon;
+        int[] weights = new int[contours.size()];
+        Arrays.fill(weights, union ? 1 : -1);
+        weights[0] = 1;
+
+        try {
+            return booleanOperation.positiveWinding(contours, weights);
+        } catch (RuntimeException e) {
+            diagnosticsListener.offsetFailed(contour, offsetContours, e);
+            throw e;
+        }
     }
 
     private List<Boolean> getConvexity(List<Point> points) {
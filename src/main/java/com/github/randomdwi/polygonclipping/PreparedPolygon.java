@@ -0,0 +1,125 @@
+package com.github.randomdwi.polygonclipping;
+
+import com.github.randomdwi.polygonclipping.enums.PolygonType;
+import com.github.randomdwi.polygonclipping.geometry.BoundingBox;
+import com.github.randomdwi.polygonclipping.geometry.Contour;
+import com.github.randomdwi.polygonclipping.sweepline.EventStore;
+import com.github.randomdwi.polygonclipping.sweepline.SweepEventComparator;
+import com.github.randomdwi.polygonclipping.utils.IntList;
+
+/**
+ * Clipping polygon prepared for many boolean operations.
+ * <p>
+ * The sweep events of the polygon are computed and sorted once. Operations with a prepared clipping polygon
+ * only have to sort the events of the subject polygon. The polygon must not be modified after preparation.
+ */
+public class PreparedPolygon {
+
+    private final Polygon polygon;
+    private final BoundingBox boundingBox;
+
+    // events in processing order, otherEvent refers to positions in this order
+    private final double[] x;
+    private final double[] y;
+    private final boolean[] left;
+    private final int[] otherEvent;
+    private final int[] contour;
+
+    /**
+     * Prepare a polygon to be used as clipping polygon.
+     *
+     * @param polygon the polygon
+     */
+    public PreparedPolygon(Polygon polygon) {
+        this.polygon = polygon;
+        this.boundingBox = polygon.boundingBox();
+
+        EventStore store = new EventStore(2 * polygon.pointCount());
+        int polygonType = PolygonType.CLIPPING.ordinal();
+        int[] contourEnd = new int[polygon.contourCount()];
+        for (int i = 0; i < polygon.contourCount(); i++) {
+            Contour contour = polygon.contour(i);
+            int pointCount = contour.pointCount();
+            for (int j = 0; j < pointCount; j++) {
+                int next = j + 1 < pointCount ? j + 1 : 0;
+                store.addSegment(contour.x(j), contour.y(j), contour.x(next), contour.y(next), polygonType);
+            }
+            contourEnd[i] = store.size();
+        }
+
+        int eventCount = store.size();
+        IntList sortedEvents = new IntList(eventCount);
+        for (int i = 0; i < eventCount; i++) {
+            sortedEvents.add(i);
+        }
+        // same order as the event queue
+        SweepEventComparator comparator = new SweepEventComparator(store, true);
+        sortedEvents.sort(comparator::compare);
+
+        int[] position = new int[eventCount];
+        for (int i = 0; i < eventCount; i++) {
+            position[sortedEvents.get(i)] = i;
+        }
+
+        x = new double[eventCount];
+        y = new double[eventCount];
+        left = new boolean[eventCount];
+        otherEvent = new int[eventCount];
+        contour = new int[eventCount];
+        for (int i = 0, c = 0; i < eventCount; i++) {
+            while (contourEnd[c] <= i) {
+                c++;
+            }
+            contour[position[i]] = c;
+        }
+        for (int i = 0; i < eventCount; i++) {
+            int event = sortedEvents.get(i);
+            x[i] = store.x(event);
+            y[i] = store.y(event);
+            left[i] = store.isLeft(event);
+            otherEvent[i] = position[store.otherEvent(event)];
+        }
+    }
+
+    /**
+     * Get the prepared polygon.
+     *
+     * @return the polygon
+     */
+    public Polygon getPolygon() {
+        return polygon;
+    }
+
+    /**
+     * Get bounding box of the polygon.
+     *
+     * @return the bounding box
+     */
+    public BoundingBox boundingBox() {
+        return new BoundingBox(boundingBox.xMin, boundingBox.yMin, boundingBox.xMax, boundingBox.yMax);
+    }
+
+    int eventCount() {
+        return x.length;
+    }
+
+    double x(int event) {
+        return x[event];
+    }
+
+    double y(int event) {
+        return y[event];
+    }
+
+    boolean isLeft(int event) {
+        return left[event];
+    }
+
+    int otherEvent(int event) {
+        return otherEvent[event];
+    }
+
+    int contour(int event) {
+        return contour[event];
+    }
+}
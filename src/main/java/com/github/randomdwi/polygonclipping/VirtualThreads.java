@@ -0,0 +1,22 @@
+package com.github.randomdwi.polygonclipping;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Access to virtual threads. This class is replaced in the multi-release jar for Java 21,
+ * see src/main/java21.
+ */
+final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * Get an executor starting a virtual thread per task.
+     *
+     * @return the executor, null if virtual threads are not supported
+     */
+    static Executor executor() {
+        return null;
+    }
+}
@@ -0,0 +1,154 @@
+package com.github.randomdwi.polygonclipping.drawing;
+
+import com.github.randomdwi.polygonclipping.BooleanOperation;
+import com.github.randomdwi.polygonclipping.DiagnosticsListener;
+import com.github.randomdwi.polygonclipping.Polygon;
+import com.github.randomdwi.polygonclipping.geometry.BoundingBox;
+import com.github.randomdwi.polygonclipping.geometry.Contour;
+import com.github.randomdwi.polygonclipping.sweepline.EventStore;
+import com.github.randomdwi.polygonclipping.sweepline.SweepEvent;
+import com.github.randomdwi.polygonclipping.sweepline.SweepLineStatus;
+
+import java.awt.*;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Diagnostics listener writing debug images and failing inputs into a folder.
+ * <p>
+ * Every status line change is drawn into a numbered image, offset contours are drawn before they are combined
+ * and the inputs of failed operations are serialized as subject.pol and clipping.pol.
+ */
+public class DrawingDiagnosticsListener implements DiagnosticsListener {
+
+    private final File imageFolder;
+    private int imageIdx = 0;
+
+    private List<Polygon> background = Collections.emptyList();
+    private final List<Integer> resultEvents = new ArrayList<>();
+
+    /**
+     * Instantiates a new drawing diagnostics listener. Existing images in the folder are deleted.
+     *
+     * @param imageFolder folder for debug images
+     */
+    public DrawingDiagnosticsListener(String imageFolder) {
+        this.imageFolder = new File(imageFolder);
+        initImageFolder();
+    }
+
+    private void initImageFolder() {
+
+        if (!imageFolder.exists()) {
+            imageFolder.mkdirs();
+        }
+
+        File[] files = imageFolder.listFiles(file -> file.getName().endsWith(".png"));
+
+        if (files != null) {
+            Arrays.stream(files).forEach(File::delete);
+        }
+    }
+
+    @Override
+    public void operationStarted(Polygon subject, Polygon clipping, BooleanOperation.Type operation) {
+        background = Arrays.asList(subject, clipping);
+        resultEvents.clear();
+    }
+
+    @Override
+    public void operationFailed(Polygon subject, Polygon clipping, BooleanOperation.Type operation, RuntimeException exception) {
+        serialize(subject, "subject.pol");
+        serialize(clipping, "clipping.pol");
+    }
+
+    @Override
+    public void segmentAdded(EventStore store, SweepLineStatus statusLine, int event) {
+        drawStatusLines(store, statusLine, event, true);
+    }
+
+    @Override
+    public void segmentRemoved(EventStore store, SweepLineStatus statusLine, int event) {
+        if (store.inResult(event)) {
+            resultEvents.add(event);
+        } else if (store.inResult(store.otherEvent(event))) {
+            resultEvents.add(store.otherEvent(event));
+        }
+
+        drawStatusLines(store, statusLine, event, false);
+    }
+
+    @Override
+    public void offsetContoursCreated(Contour contour, List<Contour> offsetContours) {
+        Polygon offsetPolygon = new Polygon(offsetContours);
+        background = Arrays.asList(Polygon.from(contour), offsetPolygon);
+        resultEvents.clear();
+
+        PolygonDraw.drawPolygonImage(200, 200, offsetPolygon, new File(imageFolder, String.format("offset_%03d.png", imageIdx++)).getPath());
+    }
+
+    @Override
+    public void offsetFailed(Contour contour, List<Contour> offsetContours, RuntimeException exception) {
+        serialize(Polygon.from(contour), "subject.pol");
+        serialize(new Polygon(offsetContours), "clipping.pol");
+    }
+
+    private void serialize(Polygon polygon, String filename) {
+        try (OutputStream outputStream = new FileOutputStream(new File(imageFolder, filename))) {
+            polygon.serialize(outputStream);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void drawStatusLines(EventStore store, SweepLineStatus statusLine, int event, boolean eventAdded) {
+        BoundingBox boundingBox = BoundingBox.empty();
+        background.forEach(polygon -> boundingBox.combine(polygon.boundingBox()));
+        if (boundingBox.xMin > boundingBox.xMax) {
+            return;
+        }
+        PolygonDraw draw = new PolygonDraw(1000, 1000, boundingBox);
+
+        background.forEach(polygon -> draw.drawPolygon(polygon, Color.DARK_GRAY));
+
+        // draw all lines in status lines
+        statusLine.forEach(e -> drawStatusLine(draw, store, e, Color.WHITE, 3));
+        resultEvents.stream().filter(store::inResult).forEach(e -> drawStatusLine(draw, store, e, Color.GREEN, 3));
+
+        if (eventAdded) {
+            drawStatusLine(draw, store, event, new Color(0, 0, 255), 6);
+
+            int previousEvent = statusLine.getPreviousEvent(event);
+            drawStatusLine(draw, store, previousEvent, new Color(90, 50, 110), 5);
+
+            int nextEvent = statusLine.getNextEvent(event);
+            drawStatusLine(draw, store, nextEvent, new Color(150, 150, 255), 4);
+        } else {
+            if (!resultEvents.contains(event)) {
+                drawStatusLine(draw, store, event, Color.RED, 6);
+            }
+        }
+
+        try {
+            draw.save(new File(imageFolder, String.format("status_%03d.png", imageIdx++)));
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void drawStatusLine(PolygonDraw draw, EventStore store, int event, Color color, int pointWidth) {
+        if (event != EventStore.NONE) {
+            SweepEvent sweepEvent = store.toSweepEvent(event);
+            draw.setStrokeWidth(2);
+            draw.drawLine(sweepEvent.point, sweepEvent.otherEvent.point, color, 0.4);
+            draw.setStrokeWidth(pointWidth);
+            draw.drawPoint(sweepEvent.point, color, 1.0);
+        }
+    }
+}
@@ -11,8 +11,6 @@ import java.awt.geom.Area;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
-import java.util.HashSet;
-import java.util.Set;
 
 public class PolygonDraw {
 
@@ -59,16 +57,16 @@ public class PolygonDraw {
      */
     public void drawPolygon(com.github.randomdwi.polygonclipping.Polygon polygon, Color color) {
 
-        Set<Contour> drawnContours = new HashSet<>();
+        boolean[] drawnContours = new boolean[polygon.contourCount()];
 
         // sort contours so that external contour is drawn before its holes
-        polygon.getOrderedContours().forEach(c -> {
-            if (!drawnContours.contains(c)) {
-                drawContourWithHoles(polygon, c, color, drawnContours);
+        for (int index : polygon.getOrderedContourIndexes()) {
+            if (!drawnContours[index]) {
+                drawContourWithHoles(polygon, index, color, drawnContours);
             } else {
-                drawShape(contourToAwtPolygon(c), color, false);
+                drawShape(contourToAwtPolygon(polygon.contour(index)), color, false);
             }
-        });
+        }
     }
 
     /**
@@ -135,29 +133,35 @@ public class PolygonDraw {
 
     @NotNull
     private Polygon contourToAwtPolygon(Contour contour) {
-        int[] px = contour.getPoints().stream().mapToInt(p -> mapXToImage(p.x)).toArray();
-        int[] py = contour.getPoints().stream().mapToInt(p -> mapYToImage(p.y)).toArray();
+        int[] px = new int[contour.pointCount()];
+        int[] py = new int[contour.pointCount()];
+        for (int i = 0; i < px.length; i++) {
+            px[i] = mapXToImage(contour.x(i));
+            py[i] = mapYToImage(contour.y(i));
+        }
 
         return new Polygon(px, py, contour.pointCount());
     }
 
-    private void drawContourWithHoles(com.github.randomdwi.polygonclipping.Polygon polygon, Contour contour, Color color, Set<Contour> drawnContours) {
+    private void drawContourWithHoles(com.github.randomdwi.polygonclipping.Polygon polygon, int index, Color color, boolean[] drawnContours) {
 
         // draw the outer contour
+        Contour contour = polygon.contour(index);
         Polygon awtPolygon = contourToAwtPolygon(contour);
         Area area = new Area(awtPolygon);
 
-        contour.getHoles().forEach(holeIdx -> {
+        for (int h = 0; h < contour.holeCount(); h++) {
+            int holeIdx = contour.getHole(h);
             Contour hole = polygon.contour(holeIdx);
 
             Area awtHolePolygon = new Area(contourToAwtPolygon(hole));
             area.subtract(awtHolePolygon);
-            drawnContours.add(hole);
-        });
+            drawnContours[holeIdx] = true;
+        }
 
         drawShape(area, color, true);
         drawShape(awtPolygon, color, false);
-        drawnContours.add(contour);
+        drawnContours[index] = true;
     }
 
     private int mapXToImage(double x) {
@@ -15,6 +15,15 @@ public class BoundingBox {
     public double xMax;
     public double yMax;
 
+    /**
+     * Create an empty bounding box, combining it with another bounding box yields the other bounding box.
+     *
+     * @return empty bounding box
+     */
+    public static BoundingBox empty() {
+        return new BoundingBox(Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY);
+    }
+
     /**
      * Combine bounding box with other bounding box.
      *
@@ -29,6 +38,16 @@ public class BoundingBox {
         return this;
     }
 
+    /**
+     * Do the bounding boxes have at least one common point?
+     *
+     * @param other other bounding box
+     * @return bounding boxes intersect
+     */
+    public boolean intersects(BoundingBox other) {
+        return xMin <= other.xMax && other.xMin <= xMax && yMin <= other.yMax && other.yMin <= yMax;
+    }
+
     /**
      * Get center point of bounding box.
      * @return center point
@@ -3,18 +3,29 @@ package com.github.randomdwi.polygonclipping.geometry;
 import com.github.randomdwi.polygonclipping.segment.Segment;
 
 import java.io.PrintWriter;
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
-
+import java.util.RandomAccess;
+
+/**
+ * Closed contour of a polygon.
+ * <p>
+ * The points are stored packed in a single array of coordinates (x0, y0, x1, y1, ...). Points and segments
+ * returned by the contour are views created on access, changing them does not change the contour.
+ * Contours created by {@link #shareWithHoleOffset(int)} share the array until one of them is changed.
+ */
 public class Contour {
 
+    private static final double[] NO_COORDINATES = new double[0];
+
     /**
-     * Set of points conforming the external contour
+     * Coordinates of the points conforming the contour, the array may be longer than needed
      */
-    private List<Point> points = new ArrayList<>();
+    private double[] coordinates = NO_COORDINATES;
+
+    private int pointCount;
 
     /**
      * Holes of the contour. They are stored as the indexes of the holes in a polygon class
@@ -24,9 +35,24 @@ public class Contour {
     // is this contour a hole? (i.e. not an external contour)
     private boolean isHole = false;
 
+    // index of the contour this contour is a hole of, -1 for external contours
+    private int parent = -1;
+
+    // nesting depth in the hole hierarchy, 0 for external contours, -1 if not computed
+    private int depth = -1;
+
     // is contour counterClockwise? (lazily initialized)
     private Boolean isCounterClockwise;
 
+    // bounding box of the points (lazily initialized, kept up to date by add and move)
+    private BoundingBox boundingBox;
+
+    // number of modifications of the points
+    private int modificationCount;
+
+    // are the coordinates shared with another contour? (copied on the first change)
+    private boolean shared;
+
     /**
      * Create an empty contour
      */
@@ -34,25 +60,78 @@ public class Contour {
     }
 
     /**
-     * Create contour from given points.
+     * Create contour from given points. The coordinates are copied, later changes of the list or its points
+     * do not change the contour.
      *
      * @param points points
      */
     public Contour(List<Point> points) {
-        this.points = points;
+        this.coordinates = new double[2 * points.size()];
+        for (Point p : points) {
+            coordinates[2 * pointCount] = p.x;
+            coordinates[2 * pointCount + 1] = p.y;
+            pointCount++;
+        }
+    }
+
+    /**
+     * Create contour from packed coordinates (x0, y0, x1, y1, ...). The array is used, not copied.
+     *
+     * @param coordinates the coordinates
+     * @param pointCount  number of points in the array
+     */
+    public Contour(double[] coordinates, int pointCount) {
+        if (coordinates.length < 2 * pointCount) {
+            throw new IllegalArgumentException("not enough coordinates for " + pointCount + " points: " + coordinates.length);
+        }
+        this.coordinates = coordinates;
+        this.pointCount = pointCount;
     }
 
     /**
-     * Get bounding box of contour.
+     * Get bounding box of contour. The bounding box is computed once and kept up to date when points are added
+     * or the contour is moved. A copy of it is returned.
      *
      * @return bounding box
      */
     public BoundingBox boundingBox() {
-        BoundingBox boundingBox = new BoundingBox();
-        points.forEach(p -> boundingBox.combine(p.boundingBox()));
+        BoundingBox box = cachedBoundingBox();
+        return new BoundingBox(box.xMin, box.yMin, box.xMax, box.yMax);
+    }
+
+    // the cached instance is replaced, never changed, so contours sharing it are independent
+    private BoundingBox cachedBoundingBox() {
+        if (boundingBox == null) {
+            boundingBox = computeBoundingBox();
+        }
         return boundingBox;
     }
 
+    private BoundingBox computeBoundingBox() {
+        if (pointCount == 0) {
+            return BoundingBox.empty();
+        }
+        double xMin = coordinates[0];
+        double yMin = coordinates[1];
+        double xMax = xMin;
+        double yMax = yMin;
+        for (int i = 2; i < 2 * pointCount; i += 2) {
+            double x = coordinates[i];
+            double y = coordinates[i + 1];
+            if (x < xMin) {
+                xMin = x;
+            } else if (x > xMax) {
+                xMax = x;
+            }
+            if (y < yMin) {
+                yMin = y;
+            } else if (y > yMax) {
+                yMax = y;
+            }
+        }
+        return new BoundingBox(xMin, yMin, xMax, yMax);
+    }
+
     /**
      * Are the points in clockwise order?
      *
@@ -73,12 +152,12 @@ public class Contour {
         }
 
         double area = 0.0;
-        int n = points.size();
+        int n = 2 * pointCount;
 
         // https://en.wikipedia.org/wiki/Shoelace_formula
-        for (int i = 0; i < n; i++) {
-            int i_next = (i + 1) % n;
-            area += (points.get(i).y + points.get(i_next).y) * ((points.get(i).x - points.get(i_next).x));
+        for (int i = 0; i < n; i += 2) {
+            int i_next = i + 2 < n ? i + 2 : 0;
+            area += (coordinates[i + 1] + coordinates[i_next + 1]) * (coordinates[i] - coordinates[i_next]);
         }
 
         isCounterClockwise = (area >= 0.0);
@@ -91,7 +170,7 @@ public class Contour {
      * @return point count
      */
     public int pointCount() {
-        return points.size();
+        return pointCount;
     }
 
     /**
@@ -100,7 +179,47 @@ public class Contour {
      * @return edge count
      */
     public int edgeCount() {
-        return points.size();
+        return pointCount;
+    }
+
+    /**
+     * Get the x coordinate of a point.
+     *
+     * @param index index of the point
+     * @return x coordinate
+     */
+    public double x(int index) {
+        return coordinates[2 * checkIndex(index)];
+    }
+
+    /**
+     * Get the y coordinate of a point.
+     *
+     * @param index index of the point
+     * @return y coordinate
+     */
+    public double y(int index) {
+        return coordinates[2 * checkIndex(index) + 1];
+    }
+
+    /**
+     * Get the number of modifications of the points. The count changes whenever points are added, removed,
+     * set or moved.
+     *
+     * @return modification count
+     */
+    public int modificationCount() {
+        return modificationCount;
+    }
+
+    /**
+     * Get the packed coordinates (x0, y0, x1, y1, ...) of the points. The array is not copied, it may be shared
+     * with other contours and may be longer than 2 * {@link #pointCount()}.
+     *
+     * @return the coordinates
+     */
+    public double[] getCoordinates() {
+        return coordinates;
     }
 
     /**
@@ -110,10 +229,15 @@ public class Contour {
      * @param dy distance in y direction
      */
     public void move(double dx, double dy) {
-        points.forEach(p -> {
-            p.x += dx;
-            p.y += dy;
-        });
+        unshare();
+        for (int i = 0; i < 2 * pointCount; i += 2) {
+            coordinates[i] += dx;
+            coordinates[i + 1] += dy;
+        }
+        if (boundingBox != null) {
+            boundingBox = new BoundingBox(boundingBox.xMin + dx, boundingBox.yMin + dy, boundingBox.xMax + dx, boundingBox.yMax + dy);
+        }
+        modificationCount++;
     }
 
     /**
@@ -123,12 +247,12 @@ public class Contour {
      * @return the segment
      */
     public Segment segment(int index) {
-        int lastPointIdx = points.size() - 1;
+        int lastPointIdx = pointCount - 1;
 
         if (index == lastPointIdx) {
-            return new Segment(points.get(lastPointIdx), points.get(0));
+            return new Segment(getPoint(lastPointIdx), getPoint(0));
         } else {
-            return new Segment(points.get(index), points.get(index + 1));
+            return new Segment(getPoint(index), getPoint(index + 1));
         }
     }
 
@@ -150,7 +274,15 @@ public class Contour {
      * Change point order of the points.
      */
     public void changeOrientation() {
-        Collections.reverse(points);
+        unshare();
+        for (int i = 0, j = 2 * pointCount - 2; i < j; i += 2, j -= 2) {
+            double x = coordinates[i];
+            double y = coordinates[i + 1];
+            coordinates[i] = coordinates[j];
+            coordinates[i + 1] = coordinates[j + 1];
+            coordinates[j] = x;
+            coordinates[j + 1] = y;
+        }
         isCounterClockwise = isCounterClockwise != null ? !isCounterClockwise : null;
     }
 
@@ -160,7 +292,28 @@ public class Contour {
      * @param p the point
      */
     public void add(Point p) {
-        points.add(p);
+        add(p.x, p.y);
+    }
+
+    /**
+     * Add point to contour.
+     *
+     * @param x x coordinate of the point
+     * @param y y coordinate of the point
+     */
+    public void add(double x, double y) {
+        unshare();
+        if (2 * pointCount == coordinates.length) {
+            coordinates = Arrays.copyOf(coordinates, Math.max(8, 2 * coordinates.length));
+        }
+        coordinates[2 * pointCount] = x;
+        coordinates[2 * pointCount + 1] = y;
+        pointCount++;
+        if (boundingBox != null) {
+            boundingBox = new BoundingBox(Math.min(boundingBox.xMin, x), Math.min(boundingBox.yMin, y),
+                    Math.max(boundingBox.xMax, x), Math.max(boundingBox.yMax, y));
+        }
+        modificationCount++;
     }
 
     /**
@@ -169,15 +322,20 @@ public class Contour {
      * @param index the index
      */
     public void remove(int index) {
-        points.remove(index);
+        checkIndex(index);
+        unshare();
+        System.arraycopy(coordinates, 2 * index + 2, coordinates, 2 * index, 2 * (pointCount - index - 1));
+        pointCount--;
+        invalidate();
     }
 
     /**
      * Clear the contour.
      */
     public void clear() {
-        points.clear();
+        pointCount = 0;
         holes.clear();
+        invalidate();
     }
 
     /**
@@ -188,22 +346,25 @@ public class Contour {
     }
 
     /**
-     * Get all points of the contour.
+     * Get all points of the contour as a view of its coordinates, see {@link #getPoint(int)}.
+     * Setting, adding and removing points of the view changes the contour. The points are created from
+     * the coordinates, so changing the fields of a point taken from the view does not change the contour,
+     * set the point again instead.
      *
      * @return list of points
      */
     public List<Point> getPoints() {
-        return points;
+        return new PointList();
     }
 
     /**
-     * Get point in contour by index.
+     * Get point in contour by index. The point is created from the coordinates.
      *
      * @param index the index
      * @return the point
      */
     public Point getPoint(int index) {
-        return points.get(index);
+        return new Point(x(index), y(index));
     }
 
     /**
@@ -212,7 +373,7 @@ public class Contour {
      * @return the point
      */
     public Point lastPoint() {
-        return points.get(points.size() - 1);
+        return getPoint(pointCount - 1);
     }
 
     /**
@@ -261,14 +422,45 @@ public class Contour {
         this.isHole = isHole;
     }
 
+    /**
+     * Get the contour this contour is a hole of.
+     *
+     * @return contour index in polygon, -1 for an external contour
+     */
+    public int getParent() {
+        return parent;
+    }
+
+    /**
+     * Get the nesting depth of the contour in the hole hierarchy of its polygon.
+     *
+     * @return 0 for an external contour, 1 for its holes and so on, -1 if the hierarchy is not computed
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Set the position of the contour in the hole hierarchy of its polygon.
+     *
+     * @param parent contour index of the contour this contour is a hole of, -1 for an external contour
+     * @param depth  nesting depth, -1 if not computed
+     */
+    public void setParent(int parent, int depth) {
+        this.parent = parent;
+        this.depth = depth;
+    }
+
     /**
      * Serialize contour.
      *
      * @param writer writer to serialize with
      */
     public void serialize(PrintWriter writer) {
-        writer.println(points.size());
-        points.forEach(p -> writer.println(String.format("\t%s %s", Double.toString(p.x), Double.toString(p.y))));
+        writer.println(pointCount);
+        for (int i = 0; i < pointCount; i++) {
+            writer.println(String.format("\t%s %s", Double.toString(coordinates[2 * i]), Double.toString(coordinates[2 * i + 1])));
+        }
     }
 
     /**
@@ -295,14 +487,37 @@ public class Contour {
      * @return contour copy
      */
     public Contour copy() {
-        Contour copy = new Contour();
-        copy.points = points.stream().map(Point::copy).collect(Collectors.toList());
+        Contour copy = new Contour(Arrays.copyOf(coordinates, 2 * pointCount), pointCount);
+        copy.boundingBox = boundingBox;
         copy.holes.addAll(holes);
         copy.isHole = isHole;
+        copy.parent = parent;
+        copy.depth = depth;
         copy.isCounterClockwise = isCounterClockwise;
         return copy;
     }
 
+    /**
+     * Create a contour sharing the coordinates of this contour, with hole and parent indexes shifted by an offset.
+     * Used to place the contour in another polygon without copying its points. The contours are independent,
+     * the first change of the points of either contour copies them.
+     *
+     * @param offset offset added to the hole and parent indexes
+     * @return contour sharing the points
+     */
+    public Contour shareWithHoleOffset(int offset) {
+        Contour shared = new Contour(coordinates, pointCount);
+        shared.boundingBox = cachedBoundingBox();
+        shared.shared = true;
+        this.shared = true;
+        holes.forEach(h -> shared.holes.add(h + offset));
+        shared.isHole = isHole;
+        shared.parent = parent < 0 ? parent : parent + offset;
+        shared.depth = depth;
+        shared.isCounterClockwise = isCounterClockwise;
+        return shared;
+    }
+
     /**
      * Create contour from given points.
      *
@@ -310,9 +525,93 @@ public class Contour {
      * @return contour spanned by points
      */
     public static Contour from(double[][] points) {
-        List<Point> pointList = Arrays.stream(points)
-                .map(coord -> new Point(coord[0], coord[1]))
-                .collect(Collectors.toList());
-        return new Contour(pointList);
+        double[] coordinates = new double[2 * points.length];
+        for (int i = 0; i < points.length; i++) {
+            coordinates[2 * i] = points[i][0];
+            coordinates[2 * i + 1] = points[i][1];
+        }
+        return new Contour(coordinates, points.length);
+    }
+
+    /**
+     * Copy shared coordinates before they are changed in place.
+     */
+    private void unshare() {
+        if (shared) {
+            coordinates = Arrays.copyOf(coordinates, 2 * pointCount);
+            shared = false;
+        }
+    }
+
+    private void invalidate() {
+        boundingBox = null;
+        modificationCount++;
+    }
+
+    private int checkIndex(int index) {
+        if (index < 0 || index >= pointCount) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + pointCount);
+        }
+        return index;
+    }
+
+    /**
+     * View of the coordinates as list of points.
+     */
+    private class PointList extends AbstractList<Point> implements RandomAccess {
+
+        @Override
+        public Point get(int index) {
+            return getPoint(index);
+        }
+
+        @Override
+        public Point set(int index, Point point) {
+            Point previous = getPoint(index);
+            unshare();
+            coordinates[2 * index] = point.x;
+            coordinates[2 * index + 1] = point.y;
+            invalidate();
+            return previous;
+        }
+
+        @Override
+        public void add(int index, Point point) {
+            if (index < 0 || index > pointCount) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + pointCount);
+            }
+            unshare();
+            if (2 * pointCount == coordinates.length) {
+                coordinates = Arrays.copyOf(coordinates, Math.max(8, 2 * coordinates.length));
+            }
+            System.arraycopy(coordinates, 2 * index, coordinates, 2 * index + 2, 2 * (pointCount - index));
+            coordinates[2 * index] = point.x;
+            coordinates[2 * index + 1] = point.y;
+            pointCount++;
+            invalidate();
+            modCount++;
+        }
+
+        @Override
+        public Point remove(int index) {
+            Point previous = getPoint(index);
+            Contour.this.remove(index);
+            modCount++;
+            return previous;
+        }
+
+        @Override
+        protected void removeRange(int fromIndex, int toIndex) {
+            unshare();
+            System.arraycopy(coordinates, 2 * toIndex, coordinates, 2 * fromIndex, 2 * (pointCount - toIndex));
+            pointCount -= toIndex - fromIndex;
+            invalidate();
+            modCount++;
+        }
+
+        @Override
+        public int size() {
+            return pointCount;
+        }
     }
 }
@@ -3,12 +3,16 @@ package com.github.randomdwi.polygonclipping.geometry;
 import com.github.randomdwi.polygonclipping.segment.Segment;
 import lombok.Data;
 
-import java.util.Arrays;
-import java.util.Comparator;
-import java.util.Optional;
-
 import static com.github.randomdwi.polygonclipping.geometry.Intersection.Type.*;
 
+/**
+ * Intersection of two segments.
+ * <p>
+ * An instance can be reused as result holder for many segment pairs with
+ * {@link #compute(double, double, double, double, double, double, double, double, boolean)}, which works on the
+ * coordinates only and allocates nothing. The intersection point is (x, y), an overlap ends at (x1, y1).
+ * The point objects {@link #point} and {@link #pi1} are only set by the constructors taking segments.
+ */
 @Data
 public class Intersection {
 
@@ -24,6 +28,17 @@ public class Intersection {
     public Point pi1;
     public Type type;
 
+    public double x;
+    public double y;
+    public double x1;
+    public double y1;
+
+    /**
+     * Create an empty result holder.
+     */
+    public Intersection() {
+        type = NO_INTERSECTION;
+    }
 
     /**
      * Determine intersection between two segments.
@@ -32,41 +47,87 @@ public class Intersection {
      * @param segmentB the segment b
      */
     public Intersection(Segment segmentA, Segment segmentB) {
+        this(segmentA, segmentB, false);
+    }
 
-        Point pointA0 = segmentA.pBegin;
-        Point vectorA = new Point(segmentA.pEnd.x - pointA0.x, segmentA.pEnd.y - pointA0.y);
-        Point pointB0 = segmentB.pBegin;
-        Point vectorB = new Point(segmentB.pEnd.x - pointB0.x, segmentB.pEnd.y - pointB0.y);
+    /**
+     * Determine intersection between two segments.
+     * <p>
+     * In exact mode parallel and collinear segments are decided by exact orientations instead of tolerances,
+     * for coordinates on an integer grid. An intersection point at an end point of a segment is the end point.
+     *
+     * @param segmentA the segment a
+     * @param segmentB the segment b
+     * @param exact    exact mode
+     */
+    public Intersection(Segment segmentA, Segment segmentB, boolean exact) {
+        compute(segmentA.pBegin.x, segmentA.pBegin.y, segmentA.pEnd.x, segmentA.pEnd.y,
+                segmentB.pBegin.x, segmentB.pBegin.y, segmentB.pEnd.x, segmentB.pEnd.y, exact);
+        if (!NO_INTERSECTION.equals(type)) {
+            point = new Point(x, y);
+        }
+        if (OVERLAPPING.equals(type)) {
+            pi1 = new Point(x1, y1);
+        }
+    }
+
+    /**
+     * Determine intersection between segment a (a0, a1) and segment b (b0, b1) and store it in this instance,
+     * see {@link #Intersection(Segment, Segment, boolean)}.
+     *
+     * @param ax0   x coordinate of the begin of segment a
+     * @param ay0   y coordinate of the begin of segment a
+     * @param ax1   x coordinate of the end of segment a
+     * @param ay1   y coordinate of the end of segment a
+     * @param bx0   x coordinate of the begin of segment b
+     * @param by0   y coordinate of the begin of segment b
+     * @param bx1   x coordinate of the end of segment b
+     * @param by1   y coordinate of the end of segment b
+     * @param exact exact mode
+     * @return type of the intersection
+     */
+    public Type compute(double ax0, double ay0, double ax1, double ay1, double bx0, double by0, double bx1, double by1, boolean exact) {
+        point = null;
+        pi1 = null;
+        if (exact) {
+            exactIntersection(ax0, ay0, ax1, ay1, bx0, by0, bx1, by1);
+            return type;
+        }
+
+        double vectorAX = ax1 - ax0;
+        double vectorAY = ay1 - ay0;
+        double vectorBX = bx1 - bx0;
+        double vectorBY = by1 - by0;
 
-        Point vectorA0_B0 = new Point(pointB0.x - pointA0.x, pointB0.y - pointA0.y);
-        double cross = vectorA.x * vectorB.y - vectorA.y * vectorB.x;
+        double vectorA0_B0X = bx0 - ax0;
+        double vectorA0_B0Y = by0 - ay0;
+        double cross = vectorAX * vectorBY - vectorAY * vectorBX;
         double sqrCross = cross * cross;
-        double sqrLenVectorA = vectorA.x * vectorA.x + vectorA.y * vectorA.y;
-        double sqrLenVectorB = vectorB.x * vectorB.x + vectorB.y * vectorB.y;
+        double sqrLenVectorA = vectorAX * vectorAX + vectorAY * vectorAY;
+        double sqrLenVectorB = vectorBX * vectorBX + vectorBY * vectorBY;
 
         if (sqrCross > EPSILON * sqrLenVectorA * sqrLenVectorB) {
-            // lines of the segments are not parallel
-            double s = (vectorA0_B0.x * vectorB.y - vectorA0_B0.y * vectorB.x) / cross;
-            if ((s < 0) || (s > 1)) {
+            // lines of the segments are not parallel, the segments intersect if the end points of each segment
+            // are not on the same side of the line of the other segment
+            if (Triangle.orientation(bx0, by0, bx1, by1, ax0, ay0) * Triangle.orientation(bx0, by0, bx1, by1, ax1, ay1) > 0 ||
+                    Triangle.orientation(ax0, ay0, ax1, ay1, bx0, by0) * Triangle.orientation(ax0, ay0, ax1, ay1, bx1, by1) > 0) {
                 type = NO_INTERSECTION;
-                return;
-            }
-            double t = (vectorA0_B0.x * vectorA.y - vectorA0_B0.y * vectorA.x) / cross;
-            if ((t < 0) || (t > 1)) {
-                type = NO_INTERSECTION;
-                return;
+                return type;
             }
+            double s = (vectorA0_B0X * vectorBY - vectorA0_B0Y * vectorBX) / cross;
+            s = Math.max(0.0, Math.min(1.0, s));
             // intersection of lines is a point on each segment
-            point = new Point(pointA0.x + s * vectorA.x, pointA0.y + s * vectorA.y);
-            snapPointToClosestPoint(segmentA.pBegin, segmentA.pEnd, segmentB.pBegin, segmentB.pEnd);
+            x = ax0 + s * vectorAX;
+            y = ay0 + s * vectorAY;
+            snapToClosestEndPoint(ax0, ay0, ax1, ay1, bx0, by0, bx1, by1);
 
             type = POINT;
-            return;
+            return type;
         }
 
         // lines of the segments are parallel
-        double sqrLenVectorA0_B0 = vectorA0_B0.x * vectorA0_B0.x + vectorA0_B0.y * vectorA0_B0.y;
-        double crossVectorA0_B0_vectorA = vectorA0_B0.x * vectorA.y - vectorA0_B0.y * vectorA.x;
+        double sqrLenVectorA0_B0 = vectorA0_B0X * vectorA0_B0X + vectorA0_B0Y * vectorA0_B0Y;
+        double crossVectorA0_B0_vectorA = vectorA0_B0X * vectorAY - vectorA0_B0Y * vectorAX;
         double sqrCross2 = crossVectorA0_B0_vectorA * crossVectorA0_B0_vectorA;
         double rectArea = sqrLenVectorA0_B0 * sqrLenVectorA;
 
@@ -75,12 +136,67 @@ public class Intersection {
         if (sqrCross2 > EPSILON * rectArea && rectArea > EPSILON) {
             // lines of the segment are different
             type = NO_INTERSECTION;
-            return;
+            return type;
         }
 
         // Lines of the segments are the same. Need to test for overlap of segments.
-        double s0 = (vectorA.x * vectorA0_B0.x + vectorA.y * vectorA0_B0.y) / sqrLenVectorA;  // so = Dot (D0, E) * sqrLen0
-        double s1 = s0 + (vectorA.x * vectorB.x + vectorA.y * vectorB.y) / sqrLenVectorA;  // s1 = s0 + Dot (D0, D1) * sqrLen0
+        overlap(ax0, ay0, ax1, ay1, bx0, by0, bx1, by1);
+        return type;
+    }
+
+    private void exactIntersection(double ax0, double ay0, double ax1, double ay1, double bx0, double by0, double bx1, double by1) {
+        int a0 = Triangle.orientation(bx0, by0, bx1, by1, ax0, ay0);
+        int a1 = Triangle.orientation(bx0, by0, bx1, by1, ax1, ay1);
+        if (a0 == 0 && a1 == 0) {
+            overlap(ax0, ay0, ax1, ay1, bx0, by0, bx1, by1);
+            return;
+        }
+        int b0 = Triangle.orientation(ax0, ay0, ax1, ay1, bx0, by0);
+        int b1 = Triangle.orientation(ax0, ay0, ax1, ay1, bx1, by1);
+        if (a0 * a1 > 0 || b0 * b1 > 0) {
+            type = NO_INTERSECTION;
+            return;
+        }
+
+        type = POINT;
+        if (a0 == 0) {
+            x = ax0;
+            y = ay0;
+        } else if (a1 == 0) {
+            x = ax1;
+            y = ay1;
+        } else if (b0 == 0) {
+            x = bx0;
+            y = by0;
+        } else if (b1 == 0) {
+            x = bx1;
+            y = by1;
+        } else {
+            double vectorAX = ax1 - ax0;
+            double vectorAY = ay1 - ay0;
+            double vectorBX = bx1 - bx0;
+            double vectorBY = by1 - by0;
+            double s = ((bx0 - ax0) * vectorBY - (by0 - ay0) * vectorBX) / (vectorAX * vectorBY - vectorAY * vectorBX);
+            s = Math.max(0.0, Math.min(1.0, s));
+            x = ax0 + s * vectorAX;
+            y = ay0 + s * vectorAY;
+        }
+    }
+
+    /**
+     * Determine the overlap of two segments on the same line.
+     */
+    private void overlap(double ax0, double ay0, double ax1, double ay1, double bx0, double by0, double bx1, double by1) {
+        double vectorAX = ax1 - ax0;
+        double vectorAY = ay1 - ay0;
+        double vectorBX = bx1 - bx0;
+        double vectorBY = by1 - by0;
+        double vectorA0_B0X = bx0 - ax0;
+        double vectorA0_B0Y = by0 - ay0;
+        double sqrLenVectorA = vectorAX * vectorAX + vectorAY * vectorAY;
+
+        double s0 = (vectorAX * vectorA0_B0X + vectorAY * vectorA0_B0Y) / sqrLenVectorA;  // so = Dot (D0, E) * sqrLen0
+        double s1 = s0 + (vectorAX * vectorBX + vectorAY * vectorBY) / sqrLenVectorA;  // s1 = s0 + Dot (D0, D1) * sqrLen0
         double sMin = Math.min(s0, s1);
         double sMax = Math.max(s0, s1);
         double w0;
@@ -106,21 +222,50 @@ public class Intersection {
         }
 
         if (!NO_INTERSECTION.equals(type)) {
-            point = new Point(pointA0.x + w0 * vectorA.x, pointA0.y + w0 * vectorA.y);
-            snapPointToClosestPoint(segmentA.pBegin, segmentA.pEnd, segmentB.pBegin, segmentB.pEnd);
+            x = ax0 + w0 * vectorAX;
+            y = ay0 + w0 * vectorAY;
+            snapToClosestEndPoint(ax0, ay0, ax1, ay1, bx0, by0, bx1, by1);
             if (OVERLAPPING.equals(type)) {
-                pi1 = new Point(pointA0.x + w1 * vectorA.x, pointA0.y + w1 * vectorA.y);
+                x1 = ax0 + w1 * vectorAX;
+                y1 = ay0 + w1 * vectorAY;
             }
         }
     }
 
-    private void snapPointToClosestPoint(Point... points) {
-
-        Optional<Point> minimum = Arrays.stream(points)
-                .min(Comparator.comparingDouble(p -> point.sqrDist(p)));
+    /**
+     * Replace the intersection point by the closest end point of the segments, if it is close to it.
+     */
+    private void snapToClosestEndPoint(double ax0, double ay0, double ax1, double ay1, double bx0, double by0, double bx1, double by1) {
+        double closestX = ax0;
+        double closestY = ay0;
+        double minSqrDist = sqrDist(ax0, ay0);
+        double sqrDist = sqrDist(ax1, ay1);
+        if (sqrDist < minSqrDist) {
+            minSqrDist = sqrDist;
+            closestX = ax1;
+            closestY = ay1;
+        }
+        sqrDist = sqrDist(bx0, by0);
+        if (sqrDist < minSqrDist) {
+            minSqrDist = sqrDist;
+            closestX = bx0;
+            closestY = by0;
+        }
+        sqrDist = sqrDist(bx1, by1);
+        if (sqrDist < minSqrDist) {
+            closestX = bx1;
+            closestY = by1;
+        }
 
-        if (minimum.isPresent() && point.isCloseTo(minimum.get())) {
-            point = minimum.get();
+        if (Point.isCloseTo(x, y, closestX, closestY)) {
+            x = closestX;
+            y = closestY;
         }
     }
+
+    private double sqrDist(double px, double py) {
+        double dx = x - px;
+        double dy = y - py;
+        return dx * dx + dy * dy;
+    }
 }
@@ -55,6 +55,21 @@ public class Point {
         return sqrDist(point) < EPSILON;
     }
 
+    /**
+     * Check if two points given by their coordinates are close to each other.
+     *
+     * @param xA x coordinate of point a
+     * @param yA y coordinate of point a
+     * @param xB x coordinate of point b
+     * @param yB y coordinate of point b
+     * @return squared distance smaller than EPSILON
+     */
+    public static boolean isCloseTo(double xA, double yA, double xB, double yB) {
+        double dx = xA - xB;
+        double dy = yA - yB;
+        return dx * dx + dy * dy < EPSILON;
+    }
+
     /**
      * Create a copy of this point.
      *
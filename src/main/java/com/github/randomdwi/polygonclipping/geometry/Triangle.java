@@ -4,6 +4,15 @@ public class Triangle {
 
     private static final double EPSILON = 0.00000001;
 
+    // half an ulp of 1.0, the relative rounding error of a floating point operation
+    private static final double ROUNDING_ERROR = 0x1p-53;
+    // error bound of the floating point orientation relative to the magnitude of its two products
+    private static final double ORIENTATION_ERROR_BOUND = (3.0 + 16.0 * ROUNDING_ERROR) * ROUNDING_ERROR;
+    // 2^27 + 1, to split a double into two halves with 26 significant bits
+    private static final double SPLITTER = 134217729.0;
+    // expansion of the exact orientation, 16 products of two components each
+    private static final ThreadLocal<double[]> EXPANSION = ThreadLocal.withInitial(() -> new double[32]);
+
     /**
      * Signed area of the triangle (p0, p1, p2).
      *
@@ -13,11 +22,171 @@ public class Triangle {
      * @return signed area
      */
     public static double signedArea(Point p0, Point p1, Point p2) {
-        return (p0.x - p2.x) * (p1.y - p2.y) - (p1.x - p2.x) * (p0.y - p2.y);
+        return signedArea(p0.x, p0.y, p1.x, p1.y, p2.x, p2.y);
+    }
+
+    /**
+     * Signed area of the triangle (p0, p1, p2) given by the coordinates of its points.
+     *
+     * @param x0 x coordinate of point 0
+     * @param y0 y coordinate of point 0
+     * @param x1 x coordinate of point 1
+     * @param y1 y coordinate of point 1
+     * @param x2 x coordinate of point 2
+     * @param y2 y coordinate of point 2
+     * @return signed area
+     */
+    public static double signedArea(double x0, double y0, double x1, double y1, double x2, double y2) {
+        return (x0 - x2) * (y1 - y2) - (x1 - x2) * (y0 - y2);
+    }
+
+    /**
+     * Orientation of the triangle (p0, p1, p2).
+     *
+     * @param p0 point 0
+     * @param p1 point 1
+     * @param p2 point 2
+     * @return 1 if counterclockwise, -1 if clockwise, 0 if the points are collinear
+     */
+    public static int orientation(Point p0, Point p1, Point p2) {
+        return orientation(p0.x, p0.y, p1.x, p1.y, p2.x, p2.y);
+    }
+
+    /**
+     * Orientation of the triangle (p0, p1, p2), the exact sign of its signed area for the given coordinates.
+     * <p>
+     * The signed area is computed in floating point arithmetic first. Only if it is smaller than the bound of
+     * its rounding error, the area is computed again with exact arithmetic on expansions (sums of non-overlapping
+     * doubles). So the result is always correct, but costs only a few more operations than {@link #signedArea}
+     * for all triangles that are not almost degenerate.
+     *
+     * @param x0 x coordinate of point 0
+     * @param y0 y coordinate of point 0
+     * @param x1 x coordinate of point 1
+     * @param y1 y coordinate of point 1
+     * @param x2 x coordinate of point 2
+     * @param y2 y coordinate of point 2
+     * @return 1 if counterclockwise, -1 if clockwise, 0 if the points are collinear
+     */
+    public static int orientation(double x0, double y0, double x1, double y1, double x2, double y2) {
+        double left = (x0 - x2) * (y1 - y2);
+        double right = (x1 - x2) * (y0 - y2);
+        double area = left - right;
+
+        double sum;
+        if (left > 0) {
+            if (right <= 0) {
+                return signum(area);
+            }
+            sum = left + right;
+        } else if (left < 0) {
+            if (right >= 0) {
+                return signum(area);
+            }
+            sum = -left - right;
+        } else {
+            return signum(area);
+        }
+
+        double errorBound = ORIENTATION_ERROR_BOUND * sum;
+        if (area >= errorBound || -area >= errorBound) {
+            return signum(area);
+        }
+        return exactOrientation(x0, y0, x1, y1, x2, y2);
+    }
+
+    private static int signum(double value) {
+        return value > 0 ? 1 : value < 0 ? -1 : 0;
+    }
+
+    /**
+     * Compute the sign of (x0 - x2) * (y1 - y2) - (x1 - x2) * (y0 - y2) exactly.
+     * The differences are split into a rounded value and its rounding error, the products of these are expanded
+     * into 16 exact products and summed up without rounding in a buffer of the thread.
+     */
+    private static int exactOrientation(double x0, double y0, double x1, double y1, double x2, double y2) {
+        double ax = x0 - x2;
+        double axError = diffError(x0, x2, ax);
+        double by = y1 - y2;
+        double byError = diffError(y1, y2, by);
+        double cx = x1 - x2;
+        double cxError = diffError(x1, x2, cx);
+        double dy = y0 - y2;
+        double dyError = diffError(y0, y2, dy);
+
+        double[] expansion = EXPANSION.get();
+        int length = 0;
+        length = growProduct(expansion, length, ax, by);
+        length = growProduct(expansion, length, -cx, dy);
+        length = growProduct(expansion, length, ax, byError);
+        length = growProduct(expansion, length, -cx, dyError);
+        length = growProduct(expansion, length, axError, by);
+        length = growProduct(expansion, length, -cxError, dy);
+        length = growProduct(expansion, length, axError, byError);
+        length = growProduct(expansion, length, -cxError, dyError);
+        for (int i = length - 1; i >= 0; i--) {
+            if (expansion[i] != 0) {
+                return signum(expansion[i]);
+            }
+        }
+        return 0;
+    }
+
+    // a - b = x + diffError(a, b, x) exactly, for x = a - b
+    private static double diffError(double a, double b, double x) {
+        double bVirtual = a - x;
+        double aVirtual = x + bVirtual;
+        return (a - aVirtual) + (bVirtual - b);
+    }
+
+    // a * b = x + productError(a, b, x) exactly, for x = a * b
+    private static double productError(double a, double b, double x) {
+        double c = SPLITTER * a;
+        double aHigh = c - (c - a);
+        double aLow = a - aHigh;
+        c = SPLITTER * b;
+        double bHigh = c - (c - b);
+        double bLow = b - bHigh;
+        return aLow * bLow - (((x - aHigh * bHigh) - aLow * bHigh) - aHigh * bLow);
+    }
+
+    // add the exact product a * b to an expansion
+    private static int growProduct(double[] expansion, int length, double a, double b) {
+        double x = a * b;
+        length = grow(expansion, length, x);
+        return grow(expansion, length, productError(a, b, x));
+    }
+
+    /**
+     * Add a double to an expansion, ordered by increasing magnitude. Zero components are dropped.
+     *
+     * @return new length of the expansion
+     */
+    private static int grow(double[] expansion, int length, double b) {
+        double q = b;
+        int newLength = 0;
+        for (int i = 0; i < length; i++) {
+            double e = expansion[i];
+            double x = q + e;
+            double bVirtual = x - q;
+            double error = (q - (x - bVirtual)) + (e - bVirtual);
+            q = x;
+            if (error != 0) {
+                expansion[newLength++] = error;
+            }
+        }
+        if (q != 0) {
+            expansion[newLength++] = q;
+        }
+        return newLength;
     }
 
     public static boolean areaCloseToZero(Point p0, Point p1, Point p2) {
-        double area = signedArea(p0, p1, p2);
+        return areaCloseToZero(p0.x, p0.y, p1.x, p1.y, p2.x, p2.y);
+    }
+
+    public static boolean areaCloseToZero(double x0, double y0, double x1, double y1, double x2, double y2) {
+        double area = signedArea(x0, y0, x1, y1, x2, y2);
         return Math.abs(area) < EPSILON;
     }
 }
@@ -3,6 +3,7 @@ package com.github.randomdwi.polygonclipping.segment;
 import com.github.randomdwi.polygonclipping.geometry.Point;
 import com.github.randomdwi.polygonclipping.geometry.Triangle;
 import com.github.randomdwi.polygonclipping.enums.PolygonType;
+import com.github.randomdwi.polygonclipping.sweepline.EventStore;
 import com.github.randomdwi.polygonclipping.sweepline.SweepEvent;
 import com.github.randomdwi.polygonclipping.sweepline.SweepEventComparator;
 
@@ -12,13 +13,39 @@ public class SegmentComparator implements Comparator<SweepEvent> {
 
     private boolean forHoleAlgorithm;
 
+    private final EventStore store;
+    private final SweepEventComparator eventComparator;
+    private final SweepEventComparator reverseEventComparator;
+
     /**
      * Instantiates a new Segment comparator.
      *
      * @param forHoleAlgorithm for hole algorithm
      */
     public SegmentComparator(boolean forHoleAlgorithm) {
+        this(null, forHoleAlgorithm);
+    }
+
+    /**
+     * Instantiates a new Segment comparator for events in an event store.
+     *
+     * @param store            store containing the events
+     * @param forHoleAlgorithm for hole algorithm
+     */
+    public SegmentComparator(EventStore store, boolean forHoleAlgorithm) {
         this.forHoleAlgorithm = forHoleAlgorithm;
+        this.store = store;
+        this.eventComparator = new SweepEventComparator(store, false);
+        this.reverseEventComparator = new SweepEventComparator(store, true);
+    }
+
+    /**
+     * Get the store containing the compared events.
+     *
+     * @return event store or null if comparator works on {@link SweepEvent} objects
+     */
+    public EventStore getStore() {
+        return store;
     }
 
     // for sorting edges in the sweep line (sl)
@@ -72,4 +99,61 @@ public class SegmentComparator implements Comparator<SweepEvent> {
         SweepEventComparator comp = new SweepEventComparator(forHoleAlgorithm);
         return comp.compare(le1, le2);
     }
+
+    /**
+     * Compare the segments of two left events of the event store.
+     *
+     * @param le1 index of left event 1
+     * @param le2 index of left event 2
+     * @return comparison result, see {@link #compare(SweepEvent, SweepEvent)}
+     */
+    public int compare(int le1, int le2) {
+        if (le1 == le2) {
+            return 0;
+        }
+
+        double x1 = store.x(le1);
+        double y1 = store.y(le1);
+        double x2 = store.x(le2);
+        double y2 = store.y(le2);
+        int other2 = store.otherEvent(le2);
+
+        if (!store.collinear(le1, x2, y2) || !store.collinear(le1, store.x(other2), store.y(other2))) {
+            // Segments are not collinear
+            // If they share their left endpoint use the right endpoint to sort
+            if (Point.isCloseTo(x1, y1, x2, y2)) {
+                return store.below(le1, store.x(other2), store.y(other2)) ? -1 : 1;
+            }
+
+            if (!forHoleAlgorithm) {
+                // Different left endpoint: use the left endpoint to sort
+                if (Point.isCloseTo(x1, x2)) {
+                    return y1 < y2 ? -1 : 1;
+                }
+                // has the line segment associated to e1 been inserted into S after the line segment associated to e2 ?
+                if (eventComparator.compare(le1, le2) < 0) {
+                    return store.above(le2, x1, y1) ? -1 : 1;
+                }
+                // The line segment associated to e2 has been inserted into S after the line segment associated to e1
+                return store.below(le1, x2, y2) ? -1 : 1;
+            } else {
+                // has the segment associated to e1 been sorted in evp before the segment associated to e2?
+                if (reverseEventComparator.compare(le1, le2) < 0) {
+                    return store.below(le1, x2, y2) ? -1 : 1;
+                }
+                // The segment associated to e2 has been sorted in evp before the segment associated to e1
+                return store.above(le2, x1, y1) ? -1 : 1;
+            }
+        }
+        // Segments are collinear
+        if (!forHoleAlgorithm && store.polygon(le1) != store.polygon(le2)) {
+            return store.polygon(le1) < store.polygon(le2) ? -1 : 1;
+        }
+
+        // Just a consistent criterion is used
+        if (store.samePoint(le1, le2)) {
+            return 0;
+        }
+        return forHoleAlgorithm ? reverseEventComparator.compare(le1, le2) : eventComparator.compare(le1, le2);
+    }
 }
@@ -0,0 +1,175 @@
+package com.github.randomdwi.polygonclipping.sweepline;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Priority queue of events (sorted events to be processed).
+ * <p>
+ * Binary heap of event indices, ordered by a {@link SweepEventComparator}. Additionally a run of
+ * already sorted events can be added, it is merged with the heap while polling.
+ */
+public class EventQueue {
+
+    private final SweepEventComparator comparator;
+    private int[] queue = new int[64];
+    private int size;
+
+    // sorted run of consecutive event indices [runNext, runEnd)
+    private int runNext;
+    private int runEnd;
+
+    /**
+     * Instantiates a new event queue.
+     *
+     * @param comparator comparator used to order the events
+     */
+    public EventQueue(SweepEventComparator comparator) {
+        this.comparator = comparator;
+    }
+
+    /**
+     * Add event.
+     *
+     * @param event the event
+     */
+    public void add(int event) {
+        if (size == queue.length) {
+            queue = Arrays.copyOf(queue, size * 2);
+        }
+        int k = size++;
+        while (k > 0) {
+            int parent = (k - 1) >>> 1;
+            int e = queue[parent];
+            if (comparator.compare(event, e) >= 0) {
+                break;
+            }
+            queue[k] = e;
+            k = parent;
+        }
+        queue[k] = event;
+    }
+
+    /**
+     * Add the consecutive events [from, to), which have to be sorted already.
+     * Only one sorted run can be queued at a time.
+     *
+     * @param from index of the first event
+     * @param to   index after the last event
+     */
+    public void addSortedRun(int from, int to) {
+        if (runNext < runEnd) {
+            throw new IllegalStateException("event queue already contains a sorted run");
+        }
+        runNext = from;
+        runEnd = to;
+    }
+
+    /**
+     * Retrieve and remove the first event.
+     *
+     * @return the event or {@link EventStore#NONE} if the queue is empty
+     */
+    public int poll() {
+        if (runNext < runEnd && (size == 0 || comparator.compare(runNext, queue[0]) <= 0)) {
+            return runNext++;
+        }
+        if (size == 0) {
+            return EventStore.NONE;
+        }
+        int result = queue[0];
+        int n = --size;
+        if (n > 0) {
+            siftDown(queue[n], n);
+        }
+        return result;
+    }
+
+    /**
+     * Retrieve the first event without removing it.
+     *
+     * @return the event or {@link EventStore#NONE} if the queue is empty
+     */
+    public int peek() {
+        if (runNext < runEnd && (size == 0 || comparator.compare(runNext, queue[0]) <= 0)) {
+            return runNext;
+        }
+        return size == 0 ? EventStore.NONE : queue[0];
+    }
+
+    private void siftDown(int event, int n) {
+        int k = 0;
+        int half = n >>> 1;
+        while (k < half) {
+            int child = (k << 1) + 1;
+            int c = queue[child];
+            int right = child + 1;
+            if (right < n && comparator.compare(c, queue[right]) > 0) {
+                c = queue[child = right];
+            }
+            if (comparator.compare(event, c) <= 0) {
+                break;
+            }
+            queue[k] = c;
+            k = child;
+        }
+        queue[k] = event;
+    }
+
+    /**
+     * Is the queue empty?
+     *
+     * @return no events in queue
+     */
+    public boolean isEmpty() {
+        return size == 0 && runNext >= runEnd;
+    }
+
+    /**
+     * Get the number of queued events.
+     *
+     * @return event count
+     */
+    public int size() {
+        return size + Math.max(runEnd - runNext, 0);
+    }
+
+    /**
+     * Call action for every queued event, in no particular order.
+     *
+     * @param action the action
+     */
+    public void forEach(IntConsumer action) {
+        for (int i = 0; i < size; i++) {
+            action.accept(queue[i]);
+        }
+        for (int event = runNext; event < runEnd; event++) {
+            action.accept(event);
+        }
+    }
+
+    /**
+     * Replace the queued events after they have been moved in the event store, see {@link EventStore#compact(int[])}.
+     *
+     * @param newIndex new index of every queued event
+     */
+    public void relocate(int[] newIndex) {
+        for (int i = 0; i < size; i++) {
+            queue[i] = newIndex[queue[i]];
+        }
+        if (runNext < runEnd) {
+            int runLength = runEnd - runNext;
+            runNext = newIndex[runNext];
+            runEnd = runNext + runLength;
+        }
+    }
+
+    /**
+     * Remove all events.
+     */
+    public void clear() {
+        size = 0;
+        runNext = 0;
+        runEnd = 0;
+    }
+}
@@ -0,0 +1,481 @@
+package com.github.randomdwi.polygonclipping.sweepline;
+
+import com.github.randomdwi.polygonclipping.enums.EdgeType;
+import com.github.randomdwi.polygonclipping.geometry.Point;
+import com.github.randomdwi.polygonclipping.geometry.Triangle;
+
+import java.util.Arrays;
+
+/**
+ * Storage for sweep events.
+ * <p>
+ * The events are stored as struct of arrays and referenced by their index in the store.
+ * Coordinates are kept in primitive arrays, the boolean fields of an event are packed into a bit set
+ * and references to other events are stored as indices.
+ */
+public class EventStore {
+
+    /**
+     * Index used for "no event".
+     */
+    public static final int NONE = -1;
+
+    private static final EdgeType[] EDGE_TYPES = EdgeType.values();
+
+    private static final byte LEFT = 1;
+    private static final byte IN_OUT = 1 << 1;
+    private static final byte OTHER_IN_OUT = 1 << 2;
+    private static final byte IN_RESULT = 1 << 3;
+    private static final byte RESULT_IN_OUT = 1 << 4;
+
+    private int size;
+    private boolean exact; // exact collinearity for integer coordinates instead of a tolerance
+
+    private double[] x;
+    private double[] y;
+    private byte[] flags;
+    private byte[] edgeType;
+    private int[] polygon;
+    private int[] otherEvent;
+    private int[] prevInResult;
+    private int[] pos;
+    private int[] contourId;
+    private int[] windDelta;
+    private int[] windBelow;
+
+    /**
+     * Create an empty event store.
+     */
+    public EventStore() {
+        this(64);
+    }
+
+    /**
+     * Create an empty event store.
+     *
+     * @param capacity initial number of events the store can hold without growing
+     */
+    public EventStore(int capacity) {
+        capacity = Math.max(capacity, 2);
+        x = new double[capacity];
+        y = new double[capacity];
+        flags = new byte[capacity];
+        edgeType = new byte[capacity];
+        polygon = new int[capacity];
+        otherEvent = new int[capacity];
+        prevInResult = new int[capacity];
+        pos = new int[capacity];
+        contourId = new int[capacity];
+        windDelta = new int[capacity];
+        windBelow = new int[capacity];
+    }
+
+    /**
+     * Add a new event.
+     *
+     * @param x          x coordinate of the event point
+     * @param y          y coordinate of the event point
+     * @param left       is point the left endpoint of the edge
+     * @param otherEvent event associated to the other endpoint of the edge
+     * @param polygon    polygon the associated segment belongs to
+     * @return index of the new event
+     */
+    public int add(double x, double y, boolean left, int otherEvent, int polygon) {
+        if (size == this.x.length) {
+            grow();
+        }
+        int event = size++;
+        this.x[event] = x;
+        this.y[event] = y;
+        this.flags[event] = left ? LEFT : 0;
+        this.edgeType[event] = (byte) EdgeType.NORMAL.ordinal();
+        this.polygon[event] = polygon;
+        this.otherEvent[event] = otherEvent;
+        this.prevInResult[event] = NONE;
+        this.pos[event] = 0;
+        this.contourId[event] = -1;
+        this.windDelta[event] = 0;
+        this.windBelow[event] = 0;
+        return event;
+    }
+
+    /**
+     * Add the two events of segment (begin, end). The lexicographically smallest point becomes the left event.
+     *
+     * @param xBegin  x coordinate of the begin point
+     * @param yBegin  y coordinate of the begin point
+     * @param xEnd    x coordinate of the end point
+     * @param yEnd    y coordinate of the end point
+     * @param polygon polygon the segment belongs to
+     * @return index of the begin event, the end event is its other event
+     */
+    public int addSegment(double xBegin, double yBegin, double xEnd, double yEnd, int polygon) {
+        int e1 = add(xBegin, yBegin, true, NONE, polygon);
+        int e2 = add(xEnd, yEnd, true, e1, polygon);
+        otherEvent[e1] = e2;
+
+        if (samePoint(e1, e2) || xBegin < xEnd || (xBegin == xEnd && yBegin < yEnd)) {
+            // begin is the lexicographically smallest point of the segment
+            setLeft(e2, false);
+        } else {
+            setLeft(e1, false);
+        }
+        return e1;
+    }
+
+    private void grow() {
+        int capacity = x.length * 2;
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        flags = Arrays.copyOf(flags, capacity);
+        edgeType = Arrays.copyOf(edgeType, capacity);
+        polygon = Arrays.copyOf(polygon, capacity);
+        otherEvent = Arrays.copyOf(otherEvent, capacity);
+        prevInResult = Arrays.copyOf(prevInResult, capacity);
+        pos = Arrays.copyOf(pos, capacity);
+        contourId = Arrays.copyOf(contourId, capacity);
+        windDelta = Arrays.copyOf(windDelta, capacity);
+        windBelow = Arrays.copyOf(windBelow, capacity);
+    }
+
+    /**
+     * Remove all events. The allocated capacity is kept.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Remove all events which are not retained. The retained events keep their order,
+     * references to other events are updated.
+     *
+     * @param newIndex per event: {@link #NONE} to remove the event, any other value to retain it.
+     *                 On return it contains the new index of every retained event and {@link #NONE} for removed events.
+     * @return number of retained events
+     */
+    public int compact(int[] newIndex) {
+        int n = 0;
+        for (int event = 0; event < size; event++) {
+            if (newIndex[event] != NONE) {
+                newIndex[event] = n++;
+            }
+        }
+        for (int event = 0; event < size; event++) {
+            int target = newIndex[event];
+            if (target == NONE) {
+                continue;
+            }
+            x[target] = x[event];
+            y[target] = y[event];
+            flags[target] = flags[event];
+            edgeType[target] = edgeType[event];
+            polygon[target] = polygon[event];
+            otherEvent[target] = otherEvent[event] == NONE ? NONE : newIndex[otherEvent[event]];
+            prevInResult[target] = prevInResult[event] == NONE ? NONE : newIndex[prevInResult[event]];
+            pos[target] = pos[event];
+            contourId[target] = contourId[event];
+            windDelta[target] = windDelta[event];
+            windBelow[target] = windBelow[event];
+        }
+        size = n;
+        return n;
+    }
+
+    /**
+     * Get the number of events.
+     *
+     * @return event count
+     */
+    public int size() {
+        return size;
+    }
+
+    public double x(int event) {
+        return x[event];
+    }
+
+    public double y(int event) {
+        return y[event];
+    }
+
+    /**
+     * Create a point with the coordinates of the event.
+     *
+     * @param event the event
+     * @return new point
+     */
+    public Point point(int event) {
+        return new Point(x[event], y[event]);
+    }
+
+    /**
+     * Is point the left endpoint of the edge (point, otherEvent.point)?
+     *
+     * @param event the event
+     * @return is left endpoint
+     */
+    public boolean isLeft(int event) {
+        return (flags[event] & LEFT) != 0;
+    }
+
+    public void setLeft(int event, boolean left) {
+        setFlag(event, LEFT, left);
+    }
+
+    /**
+     * Does segment (point, otherEvent.point) represent an inside-outside transition in the polygon
+     * for a vertical ray from (p.x, -infinite)?
+     *
+     * @param event the event
+     * @return inside-outside transition
+     */
+    public boolean inOut(int event) {
+        return (flags[event] & IN_OUT) != 0;
+    }
+
+    public void setInOut(int event, boolean inOut) {
+        setFlag(event, IN_OUT, inOut);
+    }
+
+    /**
+     * inOut transition for the segment from the other polygon preceding this segment in the status line.
+     *
+     * @param event the event
+     * @return inside-outside transition of the other polygon
+     */
+    public boolean otherInOut(int event) {
+        return (flags[event] & OTHER_IN_OUT) != 0;
+    }
+
+    public void setOtherInOut(int event, boolean otherInOut) {
+        setFlag(event, OTHER_IN_OUT, otherInOut);
+    }
+
+    public boolean inResult(int event) {
+        return (flags[event] & IN_RESULT) != 0;
+    }
+
+    public void setInResult(int event, boolean inResult) {
+        setFlag(event, IN_RESULT, inResult);
+    }
+
+    public boolean resultInOut(int event) {
+        return (flags[event] & RESULT_IN_OUT) != 0;
+    }
+
+    public void setResultInOut(int event, boolean resultInOut) {
+        setFlag(event, RESULT_IN_OUT, resultInOut);
+    }
+
+    public EdgeType edgeType(int event) {
+        return EDGE_TYPES[edgeType[event]];
+    }
+
+    public void setEdgeType(int event, EdgeType type) {
+        edgeType[event] = (byte) type.ordinal();
+    }
+
+    /**
+     * Polygon to which the associated segment belongs to.
+     * This is the ordinal of the polygon type for boolean operations and the contour index for the hole algorithm.
+     *
+     * @param event the event
+     * @return polygon
+     */
+    public int polygon(int event) {
+        return polygon[event];
+    }
+
+    public int otherEvent(int event) {
+        return otherEvent[event];
+    }
+
+    public void setOtherEvent(int event, int other) {
+        otherEvent[event] = other;
+    }
+
+    /**
+     * Previous segment in the status line belonging to the result of the boolean operation.
+     *
+     * @param event the event
+     * @return previous event in result or {@link #NONE}
+     */
+    public int prevInResult(int event) {
+        return prevInResult[event];
+    }
+
+    public void setPrevInResult(int event, int prev) {
+        prevInResult[event] = prev;
+    }
+
+    public int pos(int event) {
+        return pos[event];
+    }
+
+    public void setPos(int event, int position) {
+        pos[event] = position;
+    }
+
+    public int contourId(int event) {
+        return contourId[event];
+    }
+
+    public void setContourId(int event, int id) {
+        contourId[event] = id;
+    }
+
+    /**
+     * Change of the winding number when crossing the segment upwards.
+     * Stored for both events of a segment, only used by the winding rule sweep.
+     *
+     * @param event the event
+     * @return winding number delta
+     */
+    public int windDelta(int event) {
+        return windDelta[event];
+    }
+
+    public void setWindDelta(int event, int delta) {
+        windDelta[event] = delta;
+    }
+
+    /**
+     * Winding number of the region directly below the segment.
+     *
+     * @param event the event
+     * @return winding number
+     */
+    public int windBelow(int event) {
+        return windBelow[event];
+    }
+
+    public void setWindBelow(int event, int winding) {
+        windBelow[event] = winding;
+    }
+
+    private void setFlag(int event, byte flag, boolean value) {
+        if (value) {
+            flags[event] |= flag;
+        } else {
+            flags[event] &= ~flag;
+        }
+    }
+
+    /**
+     * Is the line segment (point, otherEvent.point) below point (px, py)?
+     *
+     * @param event the event
+     * @param px    x coordinate of the point
+     * @param py    y coordinate of the point
+     * @return is point below?
+     */
+    public boolean below(int event, double px, double py) {
+        int other = otherEvent[event];
+        return isLeft(event) ? Triangle.orientation(x[event], y[event], x[other], y[other], px, py) > 0 :
+                Triangle.orientation(x[other], y[other], x[event], y[event], px, py) > 0;
+    }
+
+    /**
+     * Is the line segment (point, otherEvent.point) above point (px, py)?
+     *
+     * @param event the event
+     * @param px    x coordinate of the point
+     * @param py    y coordinate of the point
+     * @return is point above?
+     */
+    public boolean above(int event, double px, double py) {
+        return !below(event, px, py);
+    }
+
+    /**
+     * Is the line segment (point, otherEvent.point) a vertical line segment?
+     *
+     * @param event the event
+     * @return is line segment vertical
+     */
+    public boolean vertical(int event) {
+        return x[event] == x[otherEvent[event]];
+    }
+
+    /**
+     * Is point (px, py) on the line through the segment (point, otherEvent.point)?
+     * The collinearity is decided exactly in exact mode, otherwise with a tolerance.
+     *
+     * @param event the event
+     * @param px    x coordinate of the point
+     * @param py    y coordinate of the point
+     * @return is point on the line?
+     */
+    public boolean collinear(int event, double px, double py) {
+        int other = otherEvent[event];
+        return exact ? Triangle.orientation(x[event], y[event], x[other], y[other], px, py) == 0 :
+                Triangle.areaCloseToZero(x[event], y[event], x[other], y[other], px, py);
+    }
+
+    /**
+     * Is collinearity decided exactly?
+     *
+     * @return exact mode
+     */
+    public boolean isExact() {
+        return exact;
+    }
+
+    /**
+     * Decide collinearity exactly instead of with a tolerance, for coordinates on an integer grid.
+     *
+     * @param exact exact mode
+     */
+    public void setExact(boolean exact) {
+        this.exact = exact;
+    }
+
+    /**
+     * Are the points of both events close to each other?
+     *
+     * @param eventA event a
+     * @param eventB event b
+     * @return points are close
+     */
+    public boolean isCloseTo(int eventA, int eventB) {
+        return Point.isCloseTo(x[eventA], y[eventA], x[eventB], y[eventB]);
+    }
+
+    /**
+     * Do both events have exactly the same point?
+     *
+     * @param eventA event a
+     * @param eventB event b
+     * @return points are equal
+     */
+    public boolean samePoint(int eventA, int eventB) {
+        return Double.compare(x[eventA], x[eventB]) == 0 && Double.compare(y[eventA], y[eventB]) == 0;
+    }
+
+    /**
+     * Create a {@link SweepEvent} view of an event and its other event, e.g. for drawing or debugging.
+     * Changes to the view are not written back to the store.
+     *
+     * @param event the event
+     * @return sweep event
+     */
+    public SweepEvent toSweepEvent(int event) {
+        SweepEvent view = createView(event);
+        if (otherEvent[event] != NONE) {
+            view.otherEvent = createView(otherEvent[event]);
+            view.otherEvent.otherEvent = view;
+        }
+        return view;
+    }
+
+    private SweepEvent createView(int event) {
+        SweepEvent view = new SweepEvent(point(event), isLeft(event), polygon[event], inOut(event));
+        view.type = edgeType(event);
+        view.otherInOut = otherInOut(event);
+        view.inResult = inResult(event);
+        view.resultInOut = resultInOut(event);
+        view.pos = pos[event];
+        view.contourId = contourId[event];
+        return view;
+    }
+}
@@ -83,8 +83,8 @@ public class SweepEvent {
      * @return is point below?
      */
     public boolean below(Point p) {
-        return (left) ? Triangle.signedArea(point, otherEvent.point, p) > 0 :
-                Triangle.signedArea(otherEvent.point, point, p) > 0;
+        return (left) ? Triangle.orientation(point, otherEvent.point, p) > 0 :
+                Triangle.orientation(otherEvent.point, point, p) > 0;
     }
 
     /**
@@ -8,6 +8,7 @@ import java.util.Comparator;
 public class SweepEventComparator implements Comparator<SweepEvent> {
 
     private final boolean reverse;
+    private final EventStore store;
 
     /**
      * Instantiates a new Sweep event comparator.
@@ -15,6 +16,17 @@ public class SweepEventComparator implements Comparator<SweepEvent> {
      * @param reverse the reverse
      */
     public SweepEventComparator(boolean reverse) {
+        this(null, reverse);
+    }
+
+    /**
+     * Instantiates a new Sweep event comparator for events in an event store.
+     *
+     * @param store   store containing the events
+     * @param reverse the reverse
+     */
+    public SweepEventComparator(EventStore store, boolean reverse) {
+        this.store = store;
         this.reverse = reverse;
     }
 
@@ -58,4 +70,55 @@ public class SweepEventComparator implements Comparator<SweepEvent> {
 
         return e1.polygon > e2.polygon ? direction : -direction;
     }
+
+    /**
+     * Compare two events of the event store.
+     *
+     * @param e1 index of event 1
+     * @param e2 index of event 2
+     * @return comparison result, see {@link #compare(SweepEvent, SweepEvent)}
+     */
+    public int compare(int e1, int e2) {
+
+        int direction = reverse ? -1 : 1;
+
+        double x1 = store.x(e1);
+        double x2 = store.x(e2);
+
+        if (!Point.isCloseTo(x1, x2)) {
+            // Different x-coordinate
+            // smaller x-coordinate comes first
+            return (x1 < x2) ? direction : -direction;
+        }
+
+        double y1 = store.y(e1);
+        double y2 = store.y(e2);
+
+        // Different points, but same x-coordinate. The event with lower y-coordinate is processed first
+        if (!Point.isCloseTo(y1, y2)) {
+            return (y1 < y2) ? direction : -direction;
+        }
+
+        // Same point, but one is a left endpoint and the other a right endpoint. The right endpoint is processed first
+        boolean left1 = store.isLeft(e1);
+        if (left1 != store.isLeft(e2)) {
+            return !left1 ? direction : -direction;
+        }
+
+        int other2 = store.otherEvent(e2);
+        double otherX2 = store.x(other2);
+        double otherY2 = store.y(other2);
+
+        // Same point, both events are left endpoints or both are right endpoints.
+        if (!store.collinear(e1, otherX2, otherY2)) { // not collinear
+            if (reverse) {
+                return store.below(e1, otherX2, otherY2) ? direction : -direction;
+            } else {
+                // the event associate to the bottom segment is processed first
+                return store.above(e1, otherX2, otherY2) ? direction : -direction;
+            }
+        }
+
+        return store.polygon(e1) > store.polygon(e2) ? direction : -direction;
+    }
 }
@@ -2,23 +2,26 @@ package com.github.randomdwi.polygonclipping.sweepline;
 
 import com.github.randomdwi.polygonclipping.segment.SegmentComparator;
 
-import java.util.PriorityQueue;
-
 public class SweepLine {
 
+    /**
+     * store containing all events
+     */
+    public EventStore store;
     /**
      * event queue (sorted events to be processed)
      */
-    public PriorityQueue<SweepEvent> eventQueue;
+    public EventQueue eventQueue;
     public SweepLineStatus statusLine;
 
     /**
      * Instantiates a new Sweep line.
      *
-     * @param segmentComparator the segment comparator
+     * @param segmentComparator the segment comparator, has to work on an {@link EventStore}
      */
     public SweepLine(SegmentComparator segmentComparator) {
-        this.eventQueue = new PriorityQueue<>(new SweepEventComparator(true));
+        this.store = segmentComparator.getStore();
+        this.eventQueue = new EventQueue(new SweepEventComparator(store, true));
         this.statusLine = new SweepLineStatus(segmentComparator);
     }
 }
@@ -2,62 +2,118 @@ package com.github.randomdwi.polygonclipping.sweepline;
 
 import com.github.randomdwi.polygonclipping.segment.SegmentComparator;
 
-import java.util.Iterator;
 import java.util.TreeSet;
+import java.util.function.IntConsumer;
 
+import static com.github.randomdwi.polygonclipping.sweepline.EventStore.NONE;
+
+/**
+ * Status line of the sweep (ordered segments intersecting the sweep line).
+ * <p>
+ * The left event indices are kept in a TreeSet. Neighbors are found with {@link TreeSet#lower(Object)} and
+ * {@link TreeSet#higher(Object)}, which search the tree without creating a view and an iterator.
+ */
 public class SweepLineStatus {
 
-    protected TreeSet<SweepEvent> SL;
+    private final TreeSet<Integer> segments;
+    private final EventStore store;
 
     /**
      * Instantiates a new Sweep line status.
      *
-     * @param segmentComparator the segment comparator
+     * @param segmentComparator the segment comparator, has to work on an {@link EventStore}
      */
     public SweepLineStatus(SegmentComparator segmentComparator) {
-        this.SL = new TreeSet<>(segmentComparator);
+        this.store = segmentComparator.getStore();
+        this.segments = new TreeSet<>((le1, le2) -> segmentComparator.compare((int) le1, (int) le2));
     }
 
     /**
-     * Add event.
+     * Add event. Nothing is added if the status line already contains an equal segment.
      *
      * @param event the event
      */
-    public void addEvent(SweepEvent event) {
-        if (!event.left) {
+    public void addEvent(int event) {
+        if (!store.isLeft(event)) {
             throw new IllegalStateException("only left events can be added to SweepLineStatus");
         }
-        SL.add(event);
+        segments.add(event);
+    }
+
+    /**
+     * Gets previous event, the greatest segment below the event.
+     *
+     * @param event the event
+     * @return the previous event or {@link EventStore#NONE}
+     */
+    public int getPreviousEvent(int event) {
+        Integer previous = segments.lower(event);
+        return previous != null ? previous : NONE;
     }
 
     /**
-     * Gets previous event.
+     * Gets next event, the smallest segment above the event.
      *
      * @param event the event
-     * @return the previous event
+     * @return the next event or {@link EventStore#NONE}
      */
-    public SweepEvent getPreviousEvent(SweepEvent event) {
-        Iterator<SweepEvent> it = SL.headSet(event, false).descendingIterator();
-        return it.hasNext() ? it.next() : null;
+    public int getNextEvent(int event) {
+        Integer next = segments.higher(event);
+        return next != null ? next : NONE;
     }
 
     /**
-     * Gets next event.
+     * Remove event. The segment found equal to the event is removed.
      *
      * @param event the event
-     * @return the next event
      */
-    public SweepEvent getNextEvent(SweepEvent event) {
-        Iterator<SweepEvent> it = SL.tailSet(event, false).iterator();
-        return it.hasNext() ? it.next() : null;
+    public void removeEvent(int event) {
+        segments.remove(event);
     }
 
     /**
-     * Remove event.
+     * Does the status line contain a segment equal to the event?
      *
      * @param event the event
+     * @return is event contained
+     */
+    public boolean contains(int event) {
+        return segments.contains(event);
+    }
+
+    /**
+     * Get the number of segments in the status line.
+     *
+     * @return segment count
+     */
+    public int size() {
+        return segments.size();
+    }
+
+    /**
+     * Is the status line empty?
+     *
+     * @return no segments in status line
+     */
+    public boolean isEmpty() {
+        return segments.isEmpty();
+    }
+
+    /**
+     * Visit all events from bottom to top.
+     *
+     * @param action action performed for each event
+     */
+    public void forEach(IntConsumer action) {
+        for (int event : segments) {
+            action.accept(event);
+        }
+    }
+
+    /**
+     * Remove all events.
      */
-    public void removeEvent(SweepEvent event) {
-        SL.remove(event);
+    public void clear() {
+        segments.clear();
     }
 }
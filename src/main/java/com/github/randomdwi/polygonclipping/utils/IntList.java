@@ -0,0 +1,145 @@
+package com.github.randomdwi.polygonclipping.utils;
+
+import java.util.Arrays;
+import java.util.function.IntBinaryOperator;
+
+/**
+ * Growable list of primitive int values.
+ */
+public class IntList {
+
+    private int[] values;
+    private int size;
+
+    /**
+     * Create an empty list.
+     */
+    public IntList() {
+        this(16);
+    }
+
+    /**
+     * Create an empty list with the given initial capacity.
+     *
+     * @param capacity initial capacity
+     */
+    public IntList(int capacity) {
+        this.values = new int[Math.max(capacity, 1)];
+    }
+
+    /**
+     * Append a value.
+     *
+     * @param value the value
+     */
+    public void add(int value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size++] = value;
+    }
+
+    /**
+     * Get value by index.
+     *
+     * @param index the index
+     * @return the value
+     */
+    public int get(int index) {
+        return values[index];
+    }
+
+    /**
+     * Set value at index.
+     *
+     * @param index the index
+     * @param value the value
+     */
+    public void set(int index, int value) {
+        values[index] = value;
+    }
+
+    /**
+     * Get the number of values.
+     *
+     * @return value count
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Is the list empty?
+     *
+     * @return no values in list
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Remove all values. The capacity is kept.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Sort the values. The sort is stable, i.e. equal values keep their order.
+     *
+     * @param comparator comparator returning a negative, zero or positive value like {@link java.util.Comparator}
+     */
+    public void sort(IntBinaryOperator comparator) {
+        sort(0, size, comparator);
+    }
+
+    /**
+     * Sort the values in range [from, to). The sort is stable, i.e. equal values keep their order.
+     *
+     * @param from       first index of the range
+     * @param to         end index of the range, exclusive
+     * @param comparator comparator returning a negative, zero or positive value like {@link java.util.Comparator}
+     */
+    public void sort(int from, int to, IntBinaryOperator comparator) {
+        if (to - from < 2) {
+            return;
+        }
+        int[] buffer = Arrays.copyOf(values, to);
+        mergeSort(buffer, values, from, to, comparator);
+    }
+
+    // sorts src[from, to) into dst[from, to), both arrays have to contain the same values on entry
+    private static void mergeSort(int[] src, int[] dst, int from, int to, IntBinaryOperator comparator) {
+
+        if (to - from < 8) {
+            // insertion sort for small ranges
+            for (int i = from; i < to; i++) {
+                int value = dst[i];
+                int j = i;
+                while (j > from && comparator.applyAsInt(dst[j - 1], value) > 0) {
+                    dst[j] = dst[j - 1];
+                    j--;
+                }
+                dst[j] = value;
+            }
+            return;
+        }
+
+        int mid = (from + to) >>> 1;
+        mergeSort(dst, src, from, mid, comparator);
+        mergeSort(dst, src, mid, to, comparator);
+
+        if (comparator.applyAsInt(src[mid - 1], src[mid]) <= 0) {
+            System.arraycopy(src, from, dst, from, to - from);
+            return;
+        }
+
+        for (int i = from, p = from, q = mid; i < to; i++) {
+            if (q >= to || (p < mid && comparator.applyAsInt(src[p], src[q]) <= 0)) {
+                dst[i] = src[p++];
+            } else {
+                dst[i] = src[q++];
+            }
+        }
+    }
+}
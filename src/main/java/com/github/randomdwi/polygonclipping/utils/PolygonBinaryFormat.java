@@ -0,0 +1,222 @@
+package com.github.randomdwi.polygonclipping.utils;
+
+import com.github.randomdwi.polygonclipping.Polygon;
+import com.github.randomdwi.polygonclipping.geometry.Contour;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Compact binary format for polygons.
+ * <p>
+ * All values are little endian:
+ * <pre>
+ * int      magic "PCLP", version
+ * int      contour count (c), point count (p), hole count (h)
+ * int[c+1] offset of the first point of every contour, followed by p
+ * int[c+1] offset of the first hole of every contour in the hole table, followed by h
+ * int[h]   hole table, indexes of the hole contours
+ * padding  to a multiple of 8 bytes
+ * double[2p] x and y coordinate of every point
+ * </pre>
+ */
+public class PolygonBinaryFormat {
+
+    private static final int MAGIC = 0x504C4350; // "PCLP" in little endian
+    private static final int VERSION = 1;
+    private static final int HEADER_INTS = 5;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private PolygonBinaryFormat() {
+    }
+
+    /**
+     * Read a polygon by memory mapping a file.
+     *
+     * @param path file in binary format
+     * @return the polygon
+     * @throws IOException error reading the file
+     */
+    public static Polygon read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Read a polygon from a buffer, starting at its position.
+     *
+     * @param buffer buffer containing the polygon in binary format
+     * @return the polygon
+     */
+    public static Polygon read(ByteBuffer buffer) {
+        ByteBuffer data = buffer.slice().order(ByteOrder.LITTLE_ENDIAN);
+        IntBuffer ints = data.asIntBuffer();
+
+        if (data.remaining() < HEADER_INTS * Integer.BYTES || ints.get() != MAGIC) {
+            throw new IllegalArgumentException("not a polygon in binary format");
+        }
+        int version = ints.get();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("unsupported binary format version: " + version);
+        }
+        int contourCount = ints.get();
+        int pointCount = ints.get();
+        int holeCount = ints.get();
+        if (contourCount < 0 || pointCount < 0 || holeCount < 0) {
+            throw new IllegalArgumentException("negative count in polygon header");
+        }
+        long coordinatesOffset = coordinatesOffset(contourCount, holeCount);
+        if (coordinatesOffset + 2L * Double.BYTES * pointCount > data.remaining()) {
+            throw new IllegalArgumentException("polygon data is truncated");
+        }
+
+        int[] pointOffsets = new int[contourCount + 1];
+        int[] holeOffsets = new int[contourCount + 1];
+        int[] holes = new int[holeCount];
+        ints.get(pointOffsets);
+        ints.get(holeOffsets);
+        ints.get(holes);
+        checkOffsets(pointOffsets, pointCount, "point");
+        checkOffsets(holeOffsets, holeCount, "hole");
+        for (int hole : holes) {
+            if (hole < 0 || hole >= contourCount) {
+                throw new IllegalArgumentException("hole index out of range: " + hole);
+            }
+        }
+
+        data.position((int) coordinatesOffset);
+        DoubleBuffer doubles = data.slice().order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+
+        Polygon polygon = new Polygon();
+        for (int i = 0; i < contourCount; i++) {
+            int contourPoints = pointOffsets[i + 1] - pointOffsets[i];
+            double[] coordinates = new double[2 * contourPoints];
+            doubles.get(coordinates);
+            polygon.addContour(new Contour(coordinates, contourPoints));
+        }
+        for (int i = 0; i < contourCount; i++) {
+            for (int h = holeOffsets[i]; h < holeOffsets[i + 1]; h++) {
+                polygon.contour(i).addHole(holes[h]);
+                polygon.contour(holes[h]).setIsHole(true);
+            }
+        }
+        polygon.linkHoles();
+        return polygon;
+    }
+
+    /**
+     * Write a polygon to a file, an existing file is replaced.
+     *
+     * @param polygon the polygon
+     * @param path    the file
+     * @throws IOException error writing the file
+     */
+    public static void write(Polygon polygon, Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            write(polygon, channel);
+        }
+    }
+
+    /**
+     * Write a polygon to an output stream. The stream is not closed.
+     *
+     * @param polygon      the polygon
+     * @param outputStream the output stream
+     * @throws IOException error writing the stream
+     */
+    public static void write(Polygon polygon, OutputStream outputStream) throws IOException {
+        write(polygon, Channels.newChannel(outputStream));
+        outputStream.flush();
+    }
+
+    private static void write(Polygon polygon, WritableByteChannel channel) throws IOException {
+        int contourCount = polygon.contourCount();
+        int holeCount = 0;
+        for (Contour contour : polygon.getContours()) {
+            holeCount += contour.holeCount();
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC);
+        buffer.putInt(VERSION);
+        buffer.putInt(contourCount);
+        buffer.putInt(polygon.pointCount());
+        buffer.putInt(holeCount);
+
+        int offset = 0;
+        for (Contour contour : polygon.getContours()) {
+            putInt(buffer, channel, offset);
+            offset += contour.pointCount();
+        }
+        putInt(buffer, channel, offset);
+
+        offset = 0;
+        for (Contour contour : polygon.getContours()) {
+            putInt(buffer, channel, offset);
+            offset += contour.holeCount();
+        }
+        putInt(buffer, channel, offset);
+
+        for (Contour contour : polygon.getContours()) {
+            for (int hole : contour.getHoles()) {
+                putInt(buffer, channel, hole);
+            }
+        }
+        for (long i = (HEADER_INTS + 2 * (contourCount + 1L) + holeCount) * Integer.BYTES; i < coordinatesOffset(contourCount, holeCount); i++) {
+            buffer.put((byte) 0);
+        }
+
+        for (Contour contour : polygon.getContours()) {
+            double[] coordinates = contour.getCoordinates();
+            for (int i = 0; i < 2 * contour.pointCount(); i++) {
+                if (buffer.remaining() < Double.BYTES) {
+                    drain(buffer, channel);
+                }
+                buffer.putDouble(coordinates[i]);
+            }
+        }
+        drain(buffer, channel);
+    }
+
+    private static void checkOffsets(int[] offsets, int count, String name) {
+        if (offsets[0] != 0 || offsets[offsets.length - 1] != count) {
+            throw new IllegalArgumentException(name + " offsets do not cover the " + name + " count");
+        }
+        for (int i = 1; i < offsets.length; i++) {
+            if (offsets[i] < offsets[i - 1]) {
+                throw new IllegalArgumentException(name + " offsets are not ascending");
+            }
+        }
+    }
+
+    private static long coordinatesOffset(int contourCount, int holeCount) {
+        long intBytes = (HEADER_INTS + 2 * (contourCount + 1L) + holeCount) * Integer.BYTES;
+        return (intBytes + Double.BYTES - 1) / Double.BYTES * Double.BYTES;
+    }
+
+    private static void putInt(ByteBuffer buffer, WritableByteChannel channel, int value) throws IOException {
+        if (buffer.remaining() < Integer.BYTES) {
+            drain(buffer, channel);
+        }
+        buffer.putInt(value);
+    }
+
+    private static void drain(ByteBuffer buffer, WritableByteChannel channel) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,281 @@
+package com.github.randomdwi.polygonclipping.utils;
+
+import com.github.randomdwi.polygonclipping.geometry.Contour;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Parser for the text polygon format.
+ * <p>
+ * The input is parsed byte by byte from a reused buffer, coordinates are read into a primitive array
+ * without creating intermediate strings. The format is:
+ * <pre>
+ * contour count
+ * point count of contour 0
+ * x y
+ * ...
+ * contour id: hole id hole id ...
+ * </pre>
+ * Values are separated by any whitespace, {@code #} starts a comment until the end of the line.
+ * Repeated points and a closing point equal to the first point are dropped, contours with less than
+ * three points are skipped.
+ */
+public class PolygonReader {
+
+    private static final int BUFFER_SIZE = 8192;
+    private static final int MAX_FAST_DIGITS = 15;
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private final InputStream inputStream;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+    private int limit;
+
+    private char[] token = new char[32];
+    private double[] coordinates = new double[64];
+
+    /**
+     * Instantiates a new polygon reader.
+     *
+     * @param inputStream input stream defining the polygon, it is not closed by the reader
+     */
+    public PolygonReader(InputStream inputStream) {
+        this.inputStream = inputStream;
+    }
+
+    /**
+     * Read all contours and the hole information.
+     *
+     * @return the contours
+     * @throws IOException error reading input stream
+     */
+    public List<Contour> readContours() throws IOException {
+
+        int contourCount = readInt();
+        List<Contour> contours = new ArrayList<>(contourCount);
+
+        for (int readContours = 0; readContours < contourCount; readContours++) {
+            if (skipWhitespace(true) < 0) {
+                throw new IllegalArgumentException("not enough contours: " + readContours + "<" + contourCount);
+            }
+            Contour contour = readContour();
+            if (contour.pointCount() >= 3) {
+                contours.add(contour);
+            }
+        }
+
+        // read holes information
+        while (skipWhitespace(true) >= 0) {
+            int contourId = readInt();
+            if (skipWhitespace(false) != ':') {
+                throw new IllegalArgumentException("expected ':' after contour id " + contourId);
+            }
+            position++;
+
+            int c;
+            while ((c = skipWhitespace(false)) >= 0 && c != '\n') {
+                int hole = readInt();
+                contours.get(contourId).addHole(hole);
+                contours.get(hole).setIsHole(true);
+            }
+        }
+
+        return contours;
+    }
+
+    private Contour readContour() throws IOException {
+        int pointCount = readInt();
+        if (pointCount < 0) {
+            throw new IllegalArgumentException("invalid point count: " + pointCount);
+        }
+        if (coordinates.length < 2 * pointCount) {
+            coordinates = new double[2 * pointCount];
+        }
+
+        // repeated points and a closing point are skipped, they do not count towards the point count
+        int n = 0;
+        while (n < pointCount) {
+            if (skipWhitespace(true) < 0) {
+                throw new IllegalArgumentException("not enough points: " + n + "<" + pointCount);
+            }
+            double px = readDouble();
+            double py = readDouble();
+            if (n > 0 && px == coordinates[2 * n - 2] && py == coordinates[2 * n - 1]) {
+                continue;
+            }
+            if (n > 0 && n == pointCount - 1 && px == coordinates[0] && py == coordinates[1]) {
+                continue;
+            }
+            coordinates[2 * n] = px;
+            coordinates[2 * n + 1] = py;
+            n++;
+        }
+
+        return new Contour(Arrays.copyOf(coordinates, 2 * n), n);
+    }
+
+    /**
+     * Skip whitespace and comments.
+     *
+     * @param newlines also skip line breaks
+     * @return next character or -1 at the end of the input
+     */
+    private int skipWhitespace(boolean newlines) throws IOException {
+        while (true) {
+            int c = peek();
+            if (c == ' ' || c == '\t' || c == '\r' || (c == '\n' && newlines)) {
+                position++;
+            } else if (c == '#') {
+                while ((c = peek()) >= 0 && c != '\n') {
+                    position++;
+                }
+            } else {
+                return c;
+            }
+        }
+    }
+
+    private int peek() throws IOException {
+        if (position == limit) {
+            int read;
+            do {
+                read = inputStream.read(buffer, 0, buffer.length);
+            } while (read == 0);
+            if (read < 0) {
+                return -1;
+            }
+            position = 0;
+            limit = read;
+        }
+        return buffer[position] & 0xff;
+    }
+
+    private int readInt() throws IOException {
+        int length = readToken();
+        boolean negative = token[0] == '-';
+        int i = negative || token[0] == '+' ? 1 : 0;
+        if (i == length || length - i > 9) {
+            return Integer.parseInt(new String(token, 0, length));
+        }
+        int value = 0;
+        for (; i < length; i++) {
+            int digit = token[i] - '0';
+            if (digit < 0 || digit > 9) {
+                throw new NumberFormatException("For input string: \"" + new String(token, 0, length) + "\"");
+            }
+            value = value * 10 + digit;
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Parse a double. Values with at most 15 significant digits and a small decimal exponent are
+     * computed exactly with a single multiplication or division, everything else is passed to
+     * {@link Double#parseDouble(String)}.
+     */
+    private double readDouble() throws IOException {
+        int length = readToken();
+        int i = 0;
+        boolean negative = false;
+        if (token[0] == '-' || token[0] == '+') {
+            negative = token[0] == '-';
+            i++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean anyDigit = false;
+        boolean fraction = false;
+
+        for (; i < length; i++) {
+            char c = token[i];
+            if (c >= '0' && c <= '9') {
+                anyDigit = true;
+                if (mantissa != 0 || c != '0') {
+                    if (++digits > MAX_FAST_DIGITS) {
+                        return parseToken(length);
+                    }
+                    mantissa = mantissa * 10 + (c - '0');
+                }
+                if (fraction) {
+                    exponent--;
+                }
+            } else if (c == '.' && !fraction) {
+                fraction = true;
+            } else {
+                break;
+            }
+        }
+
+        if (i < length && anyDigit && (token[i] == 'e' || token[i] == 'E')) {
+            i++;
+            boolean negativeExponent = false;
+            if (i < length && (token[i] == '-' || token[i] == '+')) {
+                negativeExponent = token[i] == '-';
+                i++;
+            }
+            int value = 0;
+            int start = i;
+            for (; i < length && token[i] >= '0' && token[i] <= '9' && value < 1000; i++) {
+                value = value * 10 + (token[i] - '0');
+            }
+            if (i == start) {
+                return parseToken(length);
+            }
+            exponent += negativeExponent ? -value : value;
+        }
+
+        if (i != length || !anyDigit) {
+            return parseToken(length);
+        }
+
+        double value;
+        if (mantissa == 0) {
+            value = 0.0;
+        } else if (exponent >= 0 && exponent < POWERS_OF_TEN.length) {
+            value = mantissa * POWERS_OF_TEN[exponent];
+        } else if (exponent < 0 && -exponent < POWERS_OF_TEN.length) {
+            value = mantissa / POWERS_OF_TEN[-exponent];
+        } else {
+            return parseToken(length);
+        }
+        return negative ? -value : value;
+    }
+
+    private double parseToken(int length) {
+        return Double.parseDouble(new String(token, 0, length));
+    }
+
+    /**
+     * Read the next token into the token buffer. A token ends at whitespace, a comment or ':'.
+     *
+     * @return length of the token
+     */
+    private int readToken() throws IOException {
+        int c = skipWhitespace(true);
+        if (c < 0) {
+            throw new IllegalArgumentException("unexpected end of input");
+        }
+        int length = 0;
+        while (c >= 0 && c != ' ' && c != '\t' && c != '\r' && c != '\n' && c != '#' && c != ':') {
+            if (length == token.length) {
+                token = Arrays.copyOf(token, 2 * length);
+            }
+            token[length++] = (char) c;
+            position++;
+            c = peek();
+        }
+        if (length == 0) {
+            throw new IllegalArgumentException("unexpected character: '" + (char) c + "'");
+        }
+        return length;
+    }
+}
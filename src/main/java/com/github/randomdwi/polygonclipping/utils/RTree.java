@@ -0,0 +1,174 @@
+package com.github.randomdwi.polygonclipping.utils;
+
+import com.github.randomdwi.polygonclipping.Polygon;
+import com.github.randomdwi.polygonclipping.geometry.BoundingBox;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * Static R-tree over bounding boxes, bulk loaded with the sort-tile-recursive (STR) algorithm.
+ * <p>
+ * The entries are referenced by their index in the list of bounding boxes the tree is built from.
+ * All nodes are stored in flat arrays: the first nodes are the entries, followed by the nodes of the
+ * next level, the last node is the root. The children of a node are a range of the level below.
+ * The tree can not be modified, but can be searched by several threads concurrently.
+ */
+public class RTree {
+
+    private static final int NODE_CAPACITY = 16;
+
+    private final int size;
+    private final double[] xMin;
+    private final double[] yMin;
+    private final double[] xMax;
+    private final double[] yMax;
+    private final int[] first; // first child of a node, entry index for entries
+    private final int[] end;   // end of the children of a node
+    private final int root;
+
+    /**
+     * Build a tree over bounding boxes.
+     *
+     * @param boxes the bounding boxes
+     */
+    public RTree(List<BoundingBox> boxes) {
+        this.size = boxes.size();
+
+        int capacity = size;
+        for (int count = size; count > 1; count = (count + NODE_CAPACITY - 1) / NODE_CAPACITY) {
+            capacity += (count + NODE_CAPACITY - 1) / NODE_CAPACITY;
+        }
+        xMin = new double[capacity];
+        yMin = new double[capacity];
+        xMax = new double[capacity];
+        yMax = new double[capacity];
+        first = new int[capacity];
+        end = new int[capacity];
+
+        for (int i = 0; i < size; i++) {
+            BoundingBox box = boxes.get(i);
+            xMin[i] = box.xMin;
+            yMin[i] = box.yMin;
+            xMax[i] = box.xMax;
+            yMax[i] = box.yMax;
+            first[i] = i;
+        }
+
+        int levelStart = 0;
+        int levelEnd = size;
+        while (levelEnd - levelStart > 1) {
+            sortTileRecursive(levelStart, levelEnd);
+            int node = levelEnd;
+            for (int child = levelStart; child < levelEnd; child += NODE_CAPACITY) {
+                first[node] = child;
+                end[node] = Math.min(child + NODE_CAPACITY, levelEnd);
+                xMin[node] = Double.POSITIVE_INFINITY;
+                yMin[node] = Double.POSITIVE_INFINITY;
+                xMax[node] = Double.NEGATIVE_INFINITY;
+                yMax[node] = Double.NEGATIVE_INFINITY;
+                for (int c = first[node]; c < end[node]; c++) {
+                    xMin[node] = Math.min(xMin[node], xMin[c]);
+                    yMin[node] = Math.min(yMin[node], yMin[c]);
+                    xMax[node] = Math.max(xMax[node], xMax[c]);
+                    yMax[node] = Math.max(yMax[node], yMax[c]);
+                }
+                node++;
+            }
+            levelStart = levelEnd;
+            levelEnd = node;
+        }
+        root = levelEnd - 1;
+    }
+
+    /**
+     * Build a tree over the bounding boxes of polygons.
+     *
+     * @param polygons the polygons
+     * @return the tree, entries are the indexes of the polygons
+     */
+    public static RTree of(List<Polygon> polygons) {
+        List<BoundingBox> boxes = new ArrayList<>(polygons.size());
+        for (Polygon polygon : polygons) {
+            boxes.add(polygon.boundingBox());
+        }
+        return new RTree(boxes);
+    }
+
+    /**
+     * Get the number of entries.
+     *
+     * @return entry count
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Find all entries whose bounding box intersects a bounding box.
+     *
+     * @param box      the bounding box
+     * @param consumer receives the index of every found entry
+     */
+    public void search(BoundingBox box, IntConsumer consumer) {
+        if (root >= 0) {
+            search(root, box, consumer);
+        }
+    }
+
+    private void search(int node, BoundingBox box, IntConsumer consumer) {
+        if (xMin[node] > box.xMax || box.xMin > xMax[node] || yMin[node] > box.yMax || box.yMin > yMax[node]) {
+            return;
+        }
+        if (node < size) {
+            consumer.accept(first[node]);
+            return;
+        }
+        for (int child = first[node]; child < end[node]; child++) {
+            search(child, box, consumer);
+        }
+    }
+
+    /**
+     * Order the nodes of a level: sort by x center, cut into vertical slices and sort every slice by y center.
+     * Groups of consecutive nodes become the children of one parent.
+     */
+    private void sortTileRecursive(int from, int to) {
+        int count = to - from;
+        int parents = (count + NODE_CAPACITY - 1) / NODE_CAPACITY;
+        int sliceSize = (int) Math.ceil(Math.sqrt(parents)) * NODE_CAPACITY;
+
+        IntList order = new IntList(count);
+        for (int i = from; i < to; i++) {
+            order.add(i);
+        }
+        order.sort((a, b) -> Double.compare(xMin[a] + xMax[a], xMin[b] + xMax[b]));
+        for (int slice = 0; slice < count; slice += sliceSize) {
+            order.sort(slice, Math.min(slice + sliceSize, count), (a, b) -> Double.compare(yMin[a] + yMax[a], yMin[b] + yMax[b]));
+        }
+
+        permute(xMin, order, from);
+        permute(yMin, order, from);
+        permute(xMax, order, from);
+        permute(yMax, order, from);
+        permute(first, order, from);
+        permute(end, order, from);
+    }
+
+    private static void permute(double[] values, IntList order, int from) {
+        double[] copy = new double[order.size()];
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] = values[order.get(i)];
+        }
+        System.arraycopy(copy, 0, values, from, copy.length);
+    }
+
+    private static void permute(int[] values, IntList order, int from) {
+        int[] copy = new int[order.size()];
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] = values[order.get(i)];
+        }
+        System.arraycopy(copy, 0, values, from, copy.length);
+    }
+}
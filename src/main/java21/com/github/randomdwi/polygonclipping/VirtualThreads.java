@@ -0,0 +1,21 @@
+package com.github.randomdwi.polygonclipping;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Access to virtual threads, Java 21 version of the class in the multi-release jar.
+ */
+final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * Get an executor starting a virtual thread per task.
+     *
+     * @return the executor
+     */
+    static Executor executor() {
+        return Thread::startVirtualThread;
+    }
+}
@@ -0,0 +1,76 @@
+package com.github.randomdwi.polygonclipping;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class BatchOperationTest {
+
+    @Test
+    public void testExecuteAll() throws Exception {
+
+        // overlapping squares and diamonds of growing size, all operations
+        List<BatchOperation.Job> jobs = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            double size = 1 + i * 0.01;
+            double c = size / 2 + 0.3;
+            Polygon subject = Polygon.from(new double[][]{{0, 0}, {size, 0}, {size, size}, {0, size}});
+            Polygon clipping = Polygon.from(new double[][]{{c, c - size}, {c + size, c}, {c, c + size}, {c - size, c}});
+            jobs.add(new BatchOperation.Job(subject, clipping, BooleanOperation.Type.values()[i % 4]));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Polygon> results = new BatchOperation(executor).executeAll(jobs).get();
+
+            assertThat(results).hasSize(jobs.size());
+            for (int i = 0; i < jobs.size(); i++) {
+                BatchOperation.Job job = jobs.get(i);
+                Polygon expected = new BooleanOperation().execute(job.getSubject(), job.getClipping(), job.getOperation());
+                assertThat(serialize(results.get(i))).isEqualTo(serialize(expected));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testDefaultExecutor() throws Exception {
+        Polygon subject = Polygon.from(new double[][]{{0, 0}, {2, 0}, {2, 2}, {0, 2}});
+        Polygon clipping = Polygon.from(new double[][]{{1, 1}, {3, 1}, {3, 3}, {1, 3}});
+
+        Polygon result = new BatchOperation().submit(subject, clipping, BooleanOperation.Type.INTERSECTION).get();
+
+        assertThat(serialize(result)).isEqualTo(serialize(BooleanOperation.INTERSECTION(subject, clipping)));
+    }
+
+    @Test
+    public void testFailedJob() throws Exception {
+        Polygon subject = Polygon.from(new double[][]{{0, 0}, {2, 0}, {2, 2}, {0, 2}});
+        Polygon clipping = Polygon.from(new double[][]{{1, 1}, {3, 1}, {3, 3}, {1, 3}});
+
+        BatchOperation batch = new BatchOperation(Runnable::run);
+        CompletableFuture<Polygon> failed = batch.submit(subject, null, BooleanOperation.Type.UNION);
+
+        assertThat(failed).isCompletedExceptionally();
+        assertThatThrownBy(failed::get).isInstanceOf(ExecutionException.class).hasCauseInstanceOf(NullPointerException.class);
+
+        // the workspace of the failed job is reused
+        assertThat(batch.submit(subject, clipping, BooleanOperation.Type.UNION).get().isEmpty()).isFalse();
+    }
+
+    private static String serialize(Polygon polygon) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        polygon.serialize(outputStream);
+        return outputStream.toString();
+    }
+}
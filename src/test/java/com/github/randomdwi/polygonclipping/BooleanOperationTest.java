@@ -1,13 +1,19 @@
 package com.github.randomdwi.polygonclipping;
 
 import com.github.randomdwi.polygonclipping.drawing.PolygonDraw;
+import com.github.randomdwi.polygonclipping.geometry.BoundingBox;
 import com.github.randomdwi.polygonclipping.geometry.Contour;
 import com.github.randomdwi.polygonclipping.geometry.Point;
+import com.github.randomdwi.polygonclipping.sweepline.EventStore;
+import com.github.randomdwi.polygonclipping.sweepline.SweepLineStatus;
 import org.assertj.core.data.Offset;
 import org.junit.Ignore;
 import org.junit.Test;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.offset;
@@ -160,4 +166,310 @@ public class BooleanOperationTest {
         //connectEdges() not working correctly, check getNextPos()
 
     }
+
+    @Test
+    public void testReusedWorkspace() throws IOException {
+
+        String[][] pairs = {{"rectangle1", "triangle2"}, {"polygonwithhole", "square"}, {"square", "square2"},
+                {"twointersectingcontours", "rectangle2"}, {"empty", "triangle1"}};
+
+        BooleanOperation operation = new BooleanOperation();
+
+        for (int i = 0; i < 2; i++) {
+            for (String[] pair : pairs) {
+                Polygon subj = new Polygon(BooleanOperationTest.class.getResourceAsStream("/polygons/samples/" + pair[0]));
+                Polygon clip = new Polygon(BooleanOperationTest.class.getResourceAsStream("/polygons/samples/" + pair[1]));
+
+                assertThat(serialize(operation.intersection(subj, clip))).isEqualTo(serialize(BooleanOperation.INTERSECTION(subj, clip)));
+                assertThat(serialize(operation.union(subj, clip))).isEqualTo(serialize(BooleanOperation.UNION(subj, clip)));
+                assertThat(serialize(operation.difference(subj, clip))).isEqualTo(serialize(BooleanOperation.DIFFERENCE(subj, clip)));
+                assertThat(serialize(operation.xor(subj, clip))).isEqualTo(serialize(BooleanOperation.XOR(subj, clip)));
+            }
+        }
+    }
+
+    @Test
+    public void testInputsAreNotModified() throws IOException {
+
+        Polygon subj = new Polygon(BooleanOperationTest.class.getResourceAsStream("/polygons/samples/polygonwithholes"));
+        Polygon clip = new Polygon(BooleanOperationTest.class.getResourceAsStream("/polygons/samples/twointersectingcontours"));
+        String subjBefore = serialize(subj);
+        String clipBefore = serialize(clip);
+
+        BooleanOperation.INTERSECTION(subj, clip);
+        BooleanOperation.UNION(subj, clip);
+        BooleanOperation.DIFFERENCE(subj, clip);
+        BooleanOperation.XOR(subj, clip);
+
+        assertThat(serialize(subj)).isEqualTo(subjBefore);
+        assertThat(serialize(clip)).isEqualTo(clipBefore);
+    }
+
+    @Test
+    public void testTrivialUnionSharesContours() throws IOException {
+
+        Polygon subj = new Polygon(BooleanOperationTest.class.getResourceAsStream("/polygons/samples/polygonwithhole"));
+        Polygon clip = new Polygon(BooleanOperationTest.class.getResourceAsStream("/polygons/samples/polygonwithhole"));
+        clip.move(10, 10);
+
+        Polygon result = BooleanOperation.UNION(subj, clip);
+
+        assertThat(result.contourCount()).isEqualTo(4);
+        assertThat(result.contour(0).getHoles()).containsExactly(1);
+        assertThat(result.contour(2).getHoles()).containsExactly(3);
+        assertThat(result.contour(2).getCoordinates()).isSameAs(clip.contour(0).getCoordinates());
+        assertThat(clip.contour(0).getHoles()).containsExactly(1);
+    }
+
+    @Test
+    public void testChangingSharedResultKeepsInput() throws IOException {
+
+        Polygon subj = new Polygon(BooleanOperationTest.class.getResourceAsStream("/polygons/samples/polygonwithhole"));
+        Polygon clip = new Polygon(BooleanOperationTest.class.getResourceAsStream("/polygons/samples/polygonwithhole"));
+        clip.move(10, 10);
+        String subjBefore = serialize(subj);
+        String clipBefore = serialize(clip);
+        BoundingBox clipBoundingBox = clip.contour(0).boundingBox();
+        BoundingBox clipBoundingBoxBefore = new BoundingBox(clipBoundingBox.xMin, clipBoundingBox.yMin, clipBoundingBox.xMax, clipBoundingBox.yMax);
+
+        Polygon result = BooleanOperation.UNION(subj, clip);
+        result.computeHoles();
+        result.contour(0).getPoints().set(0, new Point(-100, -100));
+        result.contour(1).remove(0);
+        result.contour(2).move(5, 5);
+        result.contour(3).changeOrientation();
+        result.contour(3).add(100, 100);
+
+        assertThat(serialize(subj)).isEqualTo(subjBefore);
+        assertThat(serialize(clip)).isEqualTo(clipBefore);
+        assertThat(clip.contour(0).boundingBox()).isEqualTo(clipBoundingBoxBefore);
+        for (Polygon input : new Polygon[]{subj, clip}) {
+            for (Contour contour : input.getContours()) {
+                assertThat(contour.counterClockwise()).isEqualTo(new Contour(contour.getPoints()).counterClockwise());
+            }
+        }
+
+        // changing the input does not change the result either
+        String resultBefore = serialize(result);
+        subj.contour(0).move(1, 1);
+        assertThat(serialize(result)).isEqualTo(resultBefore);
+    }
+
+    @Test
+    public void testPreparedClipping() throws IOException {
+
+        Polygon clip = new Polygon(BooleanOperationTest.class.getResourceAsStream("/polygons/samples/polygonwithhole"));
+        PreparedPolygon preparedClip = new PreparedPolygon(clip);
+
+        String[] subjects = {"rectangle1", "rectangle2", "square", "triangle1", "twointersectingcontours", "polygonwithholes", "empty"};
+
+        BooleanOperation operation = new BooleanOperation();
+
+        for (String name : subjects) {
+            Polygon subj = new Polygon(BooleanOperationTest.class.getResourceAsStream("/polygons/samples/" + name));
+
+            assertThat(serialize(BooleanOperation.INTERSECTION(subj, preparedClip))).isEqualTo(serialize(BooleanOperation.INTERSECTION(subj, clip)));
+            assertThat(serialize(BooleanOperation.UNION(subj, preparedClip))).isEqualTo(serialize(BooleanOperation.UNION(subj, clip)));
+            assertThat(serialize(operation.difference(subj, preparedClip))).isEqualTo(serialize(BooleanOperation.DIFFERENCE(subj, clip)));
+            assertThat(serialize(operation.xor(subj, preparedClip))).isEqualTo(serialize(BooleanOperation.XOR(subj, clip)));
+        }
+    }
+
+    @Test
+    public void testDiagnosticsListener() throws IOException {
+
+        Polygon subj = new Polygon(BooleanOperationTest.class.getResourceAsStream("/polygons/samples/rectangle1"));
+        Polygon clip = new Polygon(BooleanOperationTest.class.getResourceAsStream("/polygons/samples/triangle2"));
+
+        int[] counts = new int[3];
+        BooleanOperation operation = new BooleanOperation();
+        operation.setDiagnosticsListener(new DiagnosticsListener() {
+            @Override
+            public void operationStarted(Polygon subject, Polygon clipping, BooleanOperation.Type type) {
+                assertThat(subject).isSameAs(subj);
+                assertThat(clipping).isSameAs(clip);
+                assertThat(type).isEqualTo(BooleanOperation.Type.UNION);
+                counts[0]++;
+            }
+
+            @Override
+            public void segmentAdded(EventStore store, SweepLineStatus statusLine, int event) {
+                assertThat(statusLine.contains(event)).isTrue();
+                counts[1]++;
+            }
+
+            @Override
+            public void segmentRemoved(EventStore store, SweepLineStatus statusLine, int event) {
+                assertThat(statusLine.contains(event)).isFalse();
+                counts[2]++;
+            }
+        });
+
+        Polygon result = operation.union(subj, clip);
+
+        assertThat(serialize(result)).isEqualTo(serialize(BooleanOperation.UNION(subj, clip)));
+        assertThat(counts[0]).isEqualTo(1);
+        assertThat(counts[1]).isGreaterThanOrEqualTo(subj.pointCount() + clip.pointCount());
+        assertThat(counts[2]).isEqualTo(counts[1]);
+    }
+
+    @Test
+    public void testManyOperandsInSingleSweep() throws IOException {
+
+        String[] names = {"polygonwithhole", "rectangle1", "rectangle2", "square", "triangle1", "polygonwithholes"};
+
+        List<Polygon> polygons = new ArrayList<>();
+        for (String name : names) {
+            polygons.add(new Polygon(BooleanOperationTest.class.getResourceAsStream("/polygons/samples/" + name)));
+        }
+
+        for (int n = 2; n <= polygons.size(); n++) {
+            List<Polygon> operands = polygons.subList(0, n);
+
+            Polygon union = operands.get(0);
+            Polygon intersection = operands.get(0);
+            Polygon difference = operands.get(0);
+            for (Polygon polygon : operands.subList(1, n)) {
+                union = BooleanOperation.UNION(union, polygon);
+                intersection = BooleanOperation.INTERSECTION(intersection, polygon);
+                difference = BooleanOperation.DIFFERENCE(difference, polygon);
+            }
+
+            assertThat(area(new BooleanOperation().union(operands))).isCloseTo(area(union), ALLOWED_OFFSET);
+            assertThat(area(BooleanOperation.INTERSECTION(operands))).isCloseTo(area(intersection), ALLOWED_OFFSET);
+            assertThat(area(BooleanOperation.DIFFERENCE(operands.get(0), operands.subList(1, n)))).isCloseTo(area(difference), ALLOWED_OFFSET);
+        }
+    }
+
+    @Test
+    public void testStreamingResult() throws IOException {
+
+        Polygon subj = new Polygon();
+        Polygon clip = new Polygon();
+        for (int i = 0; i < 20; i++) {
+            subj.addContour(Contour.from(new double[][]{{3.0 * i, 0.0}, {3.0 * i + 1.0, 0.0}, {3.0 * i + 1.0, 1.0}, {3.0 * i, 1.0}}));
+            clip.addContour(Contour.from(new double[][]{{3.0 * i + 0.5, 0.5}, {3.0 * i + 1.5, 0.5}, {3.0 * i + 1.5, 1.5}, {3.0 * i + 0.5, 1.5}}));
+        }
+
+        BooleanOperation operation = new BooleanOperation();
+        for (BooleanOperation.Type type : BooleanOperation.Type.values()) {
+            List<Polygon> parts = new ArrayList<>();
+            operation.execute(subj, clip, type, parts::add);
+
+            Polygon expected = operation.execute(subj, clip, type);
+            double partsArea = parts.stream().mapToDouble(BooleanOperationTest::area).sum();
+
+            assertThat(parts).hasSize(20);
+            assertThat(partsArea).isCloseTo(area(expected), ALLOWED_OFFSET);
+            assertThat(parts.stream().mapToInt(Polygon::contourCount).sum()).isEqualTo(expected.contourCount());
+        }
+
+        Polygon polygonWithHoles = new Polygon(BooleanOperationTest.class.getResourceAsStream("/polygons/samples/polygonwithholes"));
+        List<Polygon> parts = new ArrayList<>();
+        operation.execute(polygonWithHoles, subj, BooleanOperation.Type.DIFFERENCE, parts::add);
+
+        assertThat(parts).hasSize(1);
+        assertThat(serialize(parts.get(0))).isEqualTo(serialize(BooleanOperation.DIFFERENCE(polygonWithHoles, subj)));
+    }
+
+    @Test
+    public void testContourPassthrough() {
+
+        Polygon subj = new Polygon();
+        for (int i = 0; i < 4; i++) {
+            subj.addContour(Contour.from(new double[][]{{10.0 * i, 0.0}, {10.0 * i + 8.0, 0.0}, {10.0 * i + 8.0, 8.0}, {10.0 * i, 8.0}}));
+            subj.addContour(Contour.from(new double[][]{{10.0 * i + 2.0, 2.0}, {10.0 * i + 2.0, 6.0}, {10.0 * i + 6.0, 6.0}, {10.0 * i + 6.0, 2.0}}));
+            subj.contour(2 * i).addHole(2 * i + 1);
+            subj.contour(2 * i + 1).setIsHole(true);
+        }
+        Polygon clip = Polygon.from(new double[][]{{-1.0, -1.0}, {1.0, -1.0}, {1.0, 1.0}, {-1.0, 1.0}});
+        PreparedPolygon preparedClip = new PreparedPolygon(clip);
+
+        BooleanOperation operation = new BooleanOperation();
+        for (BooleanOperation.Type type : new BooleanOperation.Type[]{BooleanOperation.Type.UNION, BooleanOperation.Type.DIFFERENCE, BooleanOperation.Type.XOR}) {
+            Polygon result = operation.execute(subj, clip, type);
+
+            double expected = type == BooleanOperation.Type.DIFFERENCE ? 4 * 48.0 - 1.0 : type == BooleanOperation.Type.UNION ? 4 * 48.0 + 3.0 : 4 * 48.0 + 2.0;
+            assertThat(area(result)).isCloseTo(expected, ALLOWED_OFFSET);
+            assertThat(serialize(operation.executePrepared(subj, preparedClip, type))).isEqualTo(serialize(result));
+
+            // the squares not touching the clipping polygon are passed with their holes
+            int offset = result.contourCount() - 6;
+            for (int i = 0; i < 6; i++) {
+                assertThat(result.contour(offset + i).getCoordinates()).isSameAs(subj.contour(2 + i).getCoordinates());
+            }
+            for (int i = 0; i < 6; i += 2) {
+                assertThat(result.contour(offset + i).getHoles()).containsExactly(offset + i + 1);
+                assertThat(result.contour(offset + i + 1).isHole()).isTrue();
+            }
+        }
+    }
+
+    @Test
+    public void testOverlappingContoursAreNotPassedThrough() {
+
+        // two overlapping squares far from the clipping polygon, only the third square may be passed through
+        Polygon subj = new Polygon();
+        subj.addContour(Contour.from(new double[][]{{0.0, 0.0}, {4.0, 0.0}, {4.0, 4.0}, {0.0, 4.0}}));
+        subj.addContour(Contour.from(new double[][]{{2.0, 2.0}, {6.0, 2.0}, {6.0, 6.0}, {2.0, 6.0}}));
+        subj.addContour(Contour.from(new double[][]{{10.0, 0.0}, {12.0, 0.0}, {12.0, 2.0}, {10.0, 2.0}}));
+        Polygon clip = Polygon.from(new double[][]{{7.0, 0.0}, {8.0, 0.0}, {8.0, 1.0}, {7.0, 1.0}});
+
+        Polygon result = BooleanOperation.UNION(subj, clip);
+
+        // the sweep resolves the overlapping squares with the even-odd rule
+        assertThat(result.contourCount()).isEqualTo(4);
+        assertThat(area(result)).isCloseTo(24.0 + 4.0 + 1.0, ALLOWED_OFFSET);
+        assertThat(result.contour(3).getCoordinates()).isSameAs(subj.contour(2).getCoordinates());
+    }
+
+    @Test
+    public void testFixedPointCoordinates() throws IOException {
+
+        // squares much smaller than the tolerance of the floating point mode
+        Polygon subj = Polygon.from(new double[][]{{0.0, 0.0}, {1e-5, 0.0}, {1e-5, 1e-5}, {0.0, 1e-5}});
+        Polygon clip = Polygon.from(new double[][]{{3e-6, 3e-6}, {1.3e-5, 3e-6}, {1.3e-5, 1.3e-5}, {3e-6, 1.3e-5}});
+
+        BooleanOperation operation = new BooleanOperation();
+        operation.setFixedPointScale(1e7);
+
+        assertThat(area(operation.intersection(subj, clip))).isCloseTo(4.9e-11, offset(1e-20));
+        assertThat(area(operation.union(subj, clip))).isCloseTo(1.51e-10, offset(1e-20));
+        assertThat(area(operation.difference(subj, clip))).isCloseTo(5.1e-11, offset(1e-20));
+
+        Polygon result = operation.intersection(subj, clip);
+        for (Contour contour : result.getContours()) {
+            for (Point point : contour.getPoints()) {
+                assertThat(Math.rint(point.x * 1e7) / 1e7).isEqualTo(point.x);
+                assertThat(Math.rint(point.y * 1e7) / 1e7).isEqualTo(point.y);
+            }
+        }
+
+        // same result as in floating point mode for ordinary coordinates
+        Polygon polygonWithHole = new Polygon(BooleanOperationTest.class.getResourceAsStream("/polygons/samples/polygonwithhole"));
+        Polygon triangle = new Polygon(BooleanOperationTest.class.getResourceAsStream("/polygons/samples/triangle2"));
+        for (BooleanOperation.Type type : BooleanOperation.Type.values()) {
+            assertThat(area(operation.execute(polygonWithHole, triangle, type))).isCloseTo(area(new BooleanOperation().execute(polygonWithHole, triangle, type)), ALLOWED_OFFSET);
+        }
+    }
+
+    private static double area(Polygon polygon) {
+        double area = 0.0;
+        for (Contour contour : polygon.getContours()) {
+            double contourArea = 0.0;
+            for (int i = 0; i < contour.pointCount(); i++) {
+                Point p = contour.getPoint(i);
+                Point next = contour.getPoint((i + 1) % contour.pointCount());
+                contourArea += p.x * next.y - next.x * p.y;
+            }
+            area += contour.isHole() ? -Math.abs(contourArea) / 2 : Math.abs(contourArea) / 2;
+        }
+        return area;
+    }
+
+    private static String serialize(Polygon polygon) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        polygon.serialize(out);
+        return out.toString();
+    }
 }
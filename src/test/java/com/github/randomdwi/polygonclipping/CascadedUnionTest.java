@@ -0,0 +1,62 @@
+package com.github.randomdwi.polygonclipping;
+
+import com.github.randomdwi.polygonclipping.geometry.BoundingBox;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CascadedUnionTest {
+
+    private static Polygon square(double x, double y, double size) {
+        double[][] points = {{x, y}, {x + size, y}, {x + size, y + size}, {x, y + size}};
+        return Polygon.from(points);
+    }
+
+    @Test
+    public void testUnionOfOverlappingSquares() {
+
+        List<Polygon> squares = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            for (int j = 0; j < 8; j++) {
+                squares.add(square(i, j, 1.5));
+            }
+        }
+        Collections.shuffle(squares);
+
+        Polygon result = BooleanOperation.UNION(squares, new ForkJoinPool(4));
+
+        assertThat(result.contourCount()).isEqualTo(1);
+        assertThat(result.contour(0).getHoles()).isEmpty();
+        assertThat(result.boundingBox()).isEqualTo(new BoundingBox(0, 0, 8.5, 8.5));
+    }
+
+    @Test
+    public void testUnionOfSeparateGroups() {
+
+        List<Polygon> squares = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            squares.add(square(i, 0, 1.5));
+            squares.add(square(i + 100, 100, 1.5));
+        }
+
+        Polygon result = BooleanOperation.UNION(squares);
+
+        assertThat(result.contourCount()).isEqualTo(2);
+        assertThat(result.boundingBox()).isEqualTo(new BoundingBox(0, 0, 105.5, 101.5));
+    }
+
+    @Test
+    public void testUnionOfFewPolygons() {
+
+        assertThat(BooleanOperation.UNION(Collections.emptyList()).isEmpty()).isTrue();
+
+        Polygon single = BooleanOperation.UNION(Collections.singletonList(square(1, 1, 1)));
+        assertThat(single.contourCount()).isEqualTo(1);
+        assertThat(single.boundingBox()).isEqualTo(new BoundingBox(1, 1, 2, 2));
+    }
+}
@@ -0,0 +1,54 @@
+package com.github.randomdwi.polygonclipping;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class OverlayJoinTest {
+
+    @Test
+    public void testIntersectionOfLayers() {
+
+        // 20x20 parcels of size 1, clipped against 4x4 zones of size 5 rotated by 45 degrees
+        List<Polygon> parcels = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            for (int j = 0; j < 20; j++) {
+                parcels.add(Polygon.from(new double[][]{{i, j}, {i + 1, j}, {i + 1, j + 1}, {i, j + 1}}));
+            }
+        }
+        List<Polygon> zones = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            for (int j = 0; j < 4; j++) {
+                double cx = i * 5 + 2.5;
+                double cy = j * 5 + 2.5;
+                zones.add(Polygon.from(new double[][]{{cx - 2.5, cy}, {cx, cy - 2.5}, {cx + 2.5, cy}, {cx, cy + 2.5}}));
+            }
+        }
+
+        List<String> joined = new ArrayList<>();
+        new OverlayJoin(zones).intersection(parcels, (s, c, result) -> joined.add(s + "/" + c + ":" + serialize(result)));
+
+        List<String> expected = new ArrayList<>();
+        for (int s = 0; s < parcels.size(); s++) {
+            for (int c = 0; c < zones.size(); c++) {
+                Polygon result = BooleanOperation.INTERSECTION(parcels.get(s), zones.get(c));
+                if (!result.isEmpty()) {
+                    expected.add(s + "/" + c + ":" + serialize(result));
+                }
+            }
+        }
+
+        assertThat(joined).isNotEmpty();
+        assertThat(joined).isEqualTo(expected);
+    }
+
+    private static String serialize(Polygon polygon) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        polygon.serialize(outputStream);
+        return outputStream.toString();
+    }
+}
@@ -1,6 +1,7 @@
 package com.github.randomdwi.polygonclipping;
 
 import com.github.randomdwi.polygonclipping.drawing.PolygonDraw;
+import com.github.randomdwi.polygonclipping.geometry.BoundingBox;
 import com.github.randomdwi.polygonclipping.geometry.Contour;
 import com.github.randomdwi.polygonclipping.geometry.Point;
 import com.github.randomdwi.polygonclipping.segment.Segment;
@@ -11,6 +12,11 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
 
 public class PolygonOffsetTest {
 
@@ -93,4 +99,41 @@ public class PolygonOffsetTest {
             e.printStackTrace();
         }
     }
+
+    @Test
+    public void testCreateContourInset() {
+
+        double[][] points = {{0.0, 0.0}, {1.0, 0.0}, {1.0, 1.0}, {0.0, 1.0}};
+
+        Polygon offset = new PolygonOffset().create(Contour.from(points), -0.1);
+
+        assertThat(offset.contourCount()).isEqualTo(1);
+        BoundingBox bbox = offset.boundingBox();
+        assertThat(bbox.xMin).isCloseTo(0.1, within(1e-9));
+        assertThat(bbox.yMin).isCloseTo(0.1, within(1e-9));
+        assertThat(bbox.xMax).isCloseTo(0.9, within(1e-9));
+        assertThat(bbox.yMax).isCloseTo(0.9, within(1e-9));
+    }
+
+    @Test
+    public void testDiagnosticsListener() {
+
+        double[][] points = {{0.0, 0.0}, {1.0, 0.0}, {1.0, 1.0}, {0.0, 1.0}};
+        Contour contour = Contour.from(points);
+
+        List<Contour> created = new ArrayList<>();
+        PolygonOffset polygonOffset = new PolygonOffset();
+        polygonOffset.setDiagnosticsListener(new DiagnosticsListener() {
+            @Override
+            public void offsetContoursCreated(Contour offsetContour, List<Contour> offsetContours) {
+                assertThat(offsetContour).isSameAs(contour);
+                created.addAll(offsetContours);
+            }
+        });
+
+        polygonOffset.create(contour, 0.1);
+
+        // one rectangle per edge and one arc per convex corner
+        assertThat(created).hasSize(8);
+    }
 }
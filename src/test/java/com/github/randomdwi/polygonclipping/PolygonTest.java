@@ -1,14 +1,26 @@
 package com.github.randomdwi.polygonclipping;
 
+import com.github.randomdwi.polygonclipping.geometry.BoundingBox;
+import com.github.randomdwi.polygonclipping.geometry.Contour;
 import org.assertj.core.api.Assertions;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
 public class PolygonTest {
 
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
     @Test
     public void testComputeHoles() throws IOException {
 
@@ -23,4 +35,128 @@ public class PolygonTest {
         Assertions.assertThat(p.contour(1).getHoles()).containsExactly(2);
         Assertions.assertThat(p.contour(2).getHoles()).isEmpty();
     }
+
+    @Test
+    public void testHoleHierarchy() throws IOException {
+
+        Polygon p = new Polygon(PolygonTest.class.getResourceAsStream("/polygons/samples/polygonwithholes"));
+
+        assertThat(p.hasHoleHierarchy()).isTrue();
+        assertThat(p.contour(0).getParent()).isEqualTo(-1);
+        assertThat(p.contour(2).getParent()).isEqualTo(1);
+        assertThat(p.contour(2).getDepth()).isEqualTo(2);
+
+        // the hierarchy of a result is filled in by the sweep
+        BoundingBox bb = p.boundingBox();
+        Polygon window = Polygon.from(new double[][]{{bb.xMin - 1, bb.yMin - 1}, {bb.xMax + 1, bb.yMin - 1}, {bb.xMax + 1, bb.yMax + 1}, {bb.xMin - 1, bb.yMax + 1}});
+        Polygon result = BooleanOperation.INTERSECTION(p, window);
+
+        assertThat(result.contourCount()).isEqualTo(3);
+        assertThat(result.hasHoleHierarchy()).isTrue();
+        assertThat(result.getContours()).extracting(Contour::getDepth).containsExactlyInAnyOrder(0, 1, 2);
+
+        // rebuilding a polygon from the contours computes the same hierarchy
+        Polygon reconstructed = new Polygon(new ArrayList<>(result.getContours()));
+        for (int i = 0; i < result.contourCount(); i++) {
+            assertThat(reconstructed.contour(i).getHoles()).isEqualTo(result.contour(i).getHoles());
+            assertThat(reconstructed.contour(i).getParent()).isEqualTo(result.contour(i).getParent());
+        }
+
+        // contours without hierarchy get their holes computed
+        Polygon copy = new Polygon(result.getContours().stream().map(c -> new Contour(c.getPoints())).collect(Collectors.toList()));
+        assertThat(copy.hasHoleHierarchy()).isTrue();
+        assertThat(copy.getContours()).extracting(Contour::getDepth).containsExactlyInAnyOrder(0, 1, 2);
+    }
+
+    @Test
+    public void testOrderedContours() throws IOException {
+
+        Polygon p = new Polygon(PolygonTest.class.getResourceAsStream("/polygons/samples/polygonwithholes"));
+        assertThat(p.getOrderedContourIndexes()).containsExactly(0, 1, 2);
+
+        // holes before their external contour
+        double[][] hole = {{2.0, 2.0}, {4.0, 2.0}, {4.0, 4.0}, {2.0, 4.0}};
+        double[][] outer = {{0.0, 0.0}, {10.0, 0.0}, {10.0, 10.0}, {0.0, 10.0}};
+        double[][] island = {{2.5, 2.5}, {3.5, 2.5}, {3.5, 3.5}, {2.5, 3.5}};
+        double[][] other = {{20.0, 0.0}, {30.0, 0.0}, {30.0, 10.0}, {20.0, 10.0}};
+        Polygon q = Polygon.from(Contour.from(island), Contour.from(hole), Contour.from(outer), Contour.from(other));
+
+        assertThat(q.getOrderedContourIndexes()).containsExactly(2, 3, 1, 0);
+        assertThat(q.getOrderedContours()).containsExactly(q.contour(2), q.contour(3), q.contour(1), q.contour(0));
+        assertThat(q.getExternalContours()).containsExactly(q.contour(2), q.contour(3));
+    }
+
+    @Test
+    public void testCachedBoundingBox() {
+
+        Polygon p = Polygon.from(new double[][]{{0.0, 0.0}, {1.0, 0.0}, {1.0, 1.0}});
+        BoundingBox boundingBox = p.boundingBox();
+        assertThat(boundingBox).isEqualTo(new BoundingBox(0.0, 0.0, 1.0, 1.0));
+
+        // changing a returned bounding box does not change the cached one
+        boundingBox.combine(new BoundingBox(-10.0, -10.0, 10.0, 10.0));
+        assertThat(p.boundingBox()).isEqualTo(new BoundingBox(0.0, 0.0, 1.0, 1.0));
+
+        p.addContour(Contour.from(new double[][]{{5.0, 5.0}, {6.0, 5.0}, {6.0, 6.0}}));
+        assertThat(p.boundingBox()).isEqualTo(new BoundingBox(0.0, 0.0, 6.0, 6.0));
+
+        boundingBox = p.boundingBox();
+        p.move(1.0, 2.0);
+        assertThat(p.boundingBox()).isEqualTo(new BoundingBox(1.0, 2.0, 7.0, 8.0));
+        // a held bounding box does not move with the polygon
+        assertThat(boundingBox).isEqualTo(new BoundingBox(0.0, 0.0, 6.0, 6.0));
+
+        // modifying a contour directly is detected
+        p.contour(0).add(-3.0, 0.0);
+        assertThat(p.boundingBox()).isEqualTo(new BoundingBox(-3.0, 0.0, 7.0, 8.0));
+
+        p.removeLastContour();
+        assertThat(p.boundingBox()).isEqualTo(new BoundingBox(-3.0, 0.0, 2.0, 3.0));
+    }
+
+    @Test
+    public void testBoundingBoxOfReplacedContour() {
+
+        Polygon p = Polygon.from(new double[][]{{0.0, 0.0}, {1.0, 0.0}, {1.0, 1.0}, {0.0, 1.0}});
+        Polygon far = Polygon.from(new double[][]{{50.0, 50.0}, {51.0, 50.0}, {51.0, 51.0}, {50.0, 51.0}});
+        assertThat(p.boundingBox()).isEqualTo(new BoundingBox(0.0, 0.0, 1.0, 1.0));
+
+        // replacing a contour through the contour list is detected
+        p.getContours().set(0, far.copy().contour(0));
+        assertThat(p.boundingBox()).isEqualTo(new BoundingBox(50.0, 50.0, 51.0, 51.0));
+        assertThat(BooleanOperation.INTERSECTION(p, far).contourCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testJoinShiftsHoles() throws IOException {
+
+        Polygon p = new Polygon(PolygonTest.class.getResourceAsStream("/polygons/samples/polygonwithhole"));
+        Polygon other = new Polygon(PolygonTest.class.getResourceAsStream("/polygons/samples/polygonwithhole"));
+        other.move(10, 10);
+
+        p.join(other);
+
+        assertThat(p.contourCount()).isEqualTo(4);
+        assertThat(p.contour(0).getHoles()).containsExactly(1);
+        assertThat(p.contour(2).getHoles()).containsExactly(3);
+        assertThat(p.contour(3).getParent()).isEqualTo(2);
+        assertThat(p.hasHoleHierarchy()).isTrue();
+        assertThat(other.contour(0).getHoles()).containsExactly(1);
+    }
+
+    @Test
+    public void testReadFromFile() throws IOException {
+
+        Polygon p = new Polygon(PolygonTest.class.getResourceAsStream("/polygons/samples/polygonwithholes"));
+        File file = folder.newFile("polygonwithholes");
+        try (OutputStream outputStream = new FileOutputStream(file)) {
+            p.serialize(outputStream);
+        }
+
+        Polygon read = new Polygon(file);
+
+        assertThat(read.contourCount()).isEqualTo(3);
+        assertThat(read.pointCount()).isEqualTo(p.pointCount());
+        assertThat(read.contour(0).getHoles()).containsExactly(1);
+    }
 }
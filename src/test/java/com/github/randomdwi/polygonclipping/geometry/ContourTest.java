@@ -0,0 +1,126 @@
+package com.github.randomdwi.polygonclipping.geometry;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ContourTest {
+
+    @Test
+    public void testPackedCoordinates() {
+        Contour contour = new Contour();
+        for (int i = 0; i < 10; i++) {
+            contour.add(i, i * i);
+        }
+        contour.add(new Point(-1.0, 50.0));
+
+        assertThat(contour.pointCount()).isEqualTo(11);
+        assertThat(contour.x(3)).isEqualTo(3.0);
+        assertThat(contour.y(3)).isEqualTo(9.0);
+        assertThat(contour.lastPoint()).isEqualTo(new Point(-1.0, 50.0));
+        assertThat(contour.getPoints()).hasSize(11).startsWith(new Point(0.0, 0.0), new Point(1.0, 1.0));
+
+        BoundingBox boundingBox = contour.boundingBox();
+        assertThat(boundingBox.xMin).isEqualTo(-1.0);
+        assertThat(boundingBox.yMin).isEqualTo(0.0);
+        assertThat(boundingBox.xMax).isEqualTo(9.0);
+        assertThat(boundingBox.yMax).isEqualTo(81.0);
+
+        contour.remove(0);
+        assertThat(contour.pointCount()).isEqualTo(10);
+        assertThat(contour.getPoint(0)).isEqualTo(new Point(1.0, 1.0));
+    }
+
+    @Test
+    public void testOrientationAndMove() {
+        Contour contour = Contour.from(new double[][]{{0.0, 0.0}, {0.0, 1.0}, {1.0, 1.0}, {1.0, 0.0}});
+        Contour copy = contour.copy();
+
+        assertThat(contour.clockwise()).isTrue();
+        contour.setCounterClockwise();
+        assertThat(contour.counterClockwise()).isTrue();
+        assertThat(contour.getPoints()).containsExactly(new Point(1.0, 0.0), new Point(1.0, 1.0), new Point(0.0, 1.0), new Point(0.0, 0.0));
+
+        contour.move(2.0, 3.0);
+        assertThat(contour.getPoint(0)).isEqualTo(new Point(3.0, 3.0));
+
+        // the copy and points taken from the contour are independent
+        contour.getPoint(1).x = 100.0;
+        assertThat(contour.x(1)).isEqualTo(3.0);
+        assertThat(copy.getPoint(0)).isEqualTo(new Point(0.0, 0.0));
+
+        contour.getPoints().set(1, new Point(5.0, 5.0));
+        assertThat(contour.getPoint(1)).isEqualTo(new Point(5.0, 5.0));
+    }
+
+    @Test
+    public void testPointsView() {
+        List<Point> points = new ArrayList<>(Arrays.asList(new Point(0.0, 0.0), new Point(2.0, 0.0), new Point(2.0, 2.0)));
+        Contour contour = new Contour(points);
+
+        // the contour copies the given points
+        points.add(new Point(0.0, 2.0));
+        points.get(0).x = -1.0;
+        assertThat(contour.pointCount()).isEqualTo(3);
+        assertThat(contour.getPoint(0)).isEqualTo(new Point(0.0, 0.0));
+
+        // adding, removing and setting points of the view changes the contour
+        List<Point> view = contour.getPoints();
+        view.add(new Point(0.0, 2.0));
+        view.add(1, new Point(1.0, -1.0));
+        assertThat(contour.getPoints()).containsExactly(new Point(0.0, 0.0), new Point(1.0, -1.0), new Point(2.0, 0.0),
+                new Point(2.0, 2.0), new Point(0.0, 2.0));
+        assertThat(contour.boundingBox()).isEqualTo(new BoundingBox(0.0, -1.0, 2.0, 2.0));
+
+        assertThat(view.remove(1)).isEqualTo(new Point(1.0, -1.0));
+        view.set(0, new Point(-3.0, 0.0));
+        assertThat(contour.getPoints()).containsExactly(new Point(-3.0, 0.0), new Point(2.0, 0.0), new Point(2.0, 2.0),
+                new Point(0.0, 2.0));
+        assertThat(contour.boundingBox()).isEqualTo(new BoundingBox(-3.0, 0.0, 2.0, 2.0));
+
+        // points of the view are copies, changing them does not change the contour
+        view.get(0).x = 100.0;
+        assertThat(contour.x(0)).isEqualTo(-3.0);
+
+        view.subList(1, 3).clear();
+        assertThat(contour.getPoints()).containsExactly(new Point(-3.0, 0.0), new Point(0.0, 2.0));
+        view.clear();
+        assertThat(contour.pointCount()).isZero();
+    }
+
+    @Test
+    public void testCachedBoundingBox() {
+        Contour contour = Contour.from(new double[][]{{0.0, 0.0}, {2.0, 0.0}, {2.0, 1.0}});
+        BoundingBox boundingBox = contour.boundingBox();
+        assertThat(contour.boundingBox()).isNotSameAs(boundingBox).isEqualTo(boundingBox);
+
+        // changing a returned bounding box does not change the cached one
+        boundingBox.combine(new BoundingBox(-10.0, -10.0, 10.0, 10.0));
+        assertThat(contour.boundingBox()).isEqualTo(new BoundingBox(0.0, 0.0, 2.0, 1.0));
+        boundingBox = contour.boundingBox();
+
+        contour.add(-1.0, 3.0);
+        assertThat(contour.boundingBox()).isEqualTo(new BoundingBox(-1.0, 0.0, 2.0, 3.0));
+        // the previous instance is unchanged
+        assertThat(boundingBox).isEqualTo(new BoundingBox(0.0, 0.0, 2.0, 1.0));
+
+        boundingBox = contour.boundingBox();
+        contour.move(1.0, 1.0);
+        assertThat(contour.boundingBox()).isEqualTo(new BoundingBox(0.0, 1.0, 3.0, 4.0));
+        // a held bounding box does not move with the contour
+        assertThat(boundingBox).isEqualTo(new BoundingBox(-1.0, 0.0, 2.0, 3.0));
+
+        contour.remove(3);
+        assertThat(contour.boundingBox()).isEqualTo(new BoundingBox(1.0, 1.0, 3.0, 2.0));
+
+        contour.getPoints().set(0, new Point(-5.0, 1.0));
+        assertThat(contour.boundingBox()).isEqualTo(new BoundingBox(-5.0, 1.0, 3.0, 2.0));
+
+        contour.clear();
+        assertThat(contour.boundingBox().xMin).isGreaterThan(contour.boundingBox().xMax);
+    }
+}
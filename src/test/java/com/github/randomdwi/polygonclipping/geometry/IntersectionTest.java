@@ -3,7 +3,9 @@ package com.github.randomdwi.polygonclipping.geometry;
 import com.github.randomdwi.polygonclipping.segment.Segment;
 import org.junit.Test;
 
+import static com.github.randomdwi.polygonclipping.geometry.Intersection.Type.NO_INTERSECTION;
 import static com.github.randomdwi.polygonclipping.geometry.Intersection.Type.OVERLAPPING;
+import static com.github.randomdwi.polygonclipping.geometry.Intersection.Type.POINT;
 import static org.assertj.core.api.Assertions.assertThat;
 
 public class IntersectionTest {
@@ -25,4 +27,34 @@ public class IntersectionTest {
         assertThat(intersection.pi1).isEqualTo(segment1.pEnd);
 
     }
+
+    @Test
+    public void testReusedResultHolder() {
+
+        Intersection intersection = new Intersection();
+
+        assertThat(intersection.compute(0, 0, 2, 2, 0, 2, 2, 0, false)).isEqualTo(POINT);
+        assertThat(intersection.x).isEqualTo(1.0);
+        assertThat(intersection.y).isEqualTo(1.0);
+        assertThat(intersection.point).isNull();
+
+        assertThat(intersection.compute(0, 0, 2, 2, 0, 1, 1, 2, false)).isEqualTo(NO_INTERSECTION);
+
+        assertThat(intersection.compute(0, 0, 4, 0, 1, 0, 6, 0, false)).isEqualTo(OVERLAPPING);
+        assertThat(intersection.x).isEqualTo(1.0);
+        assertThat(intersection.x1).isEqualTo(4.0);
+
+        // close to an end point
+        assertThat(intersection.compute(0, 0, 2, 0, 1, -1, 1.00000001, 1e-9, false)).isEqualTo(POINT);
+        assertThat(intersection.x).isEqualTo(1.00000001);
+        assertThat(intersection.y).isEqualTo(1e-9);
+
+        Segment segment1 = new Segment(new Point(0, 0), new Point(3, 1));
+        Segment segment2 = new Segment(new Point(1, -2), new Point(2, 3));
+        Intersection expected = new Intersection(segment1, segment2);
+        intersection.compute(0, 0, 3, 1, 1, -2, 2, 3, false);
+        assertThat(intersection.type).isEqualTo(expected.type);
+        assertThat(intersection.x).isEqualTo(expected.point.x);
+        assertThat(intersection.y).isEqualTo(expected.point.y);
+    }
 }
@@ -0,0 +1,49 @@
+package com.github.randomdwi.polygonclipping.geometry;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TriangleTest {
+
+    @Test
+    public void testOrientation() {
+        assertThat(Triangle.orientation(0, 0, 1, 0, 0, 1)).isEqualTo(1);
+        assertThat(Triangle.orientation(0, 0, 0, 1, 1, 0)).isEqualTo(-1);
+        assertThat(Triangle.orientation(0, 0, 1, 1, 2, 2)).isEqualTo(0);
+        assertThat(Triangle.orientation(new Point(0.1, 0.1), new Point(0.3, 0.3), new Point(0.7, 0.7))).isEqualTo(0);
+    }
+
+    @Test
+    public void testOrientationOfAlmostCollinearPoints() {
+        // points on a grid of a few ulps around (0.5, 0.5), close to the line through (12, 12) and (24, 24)
+        int wrongSigns = 0;
+        for (int i = 0; i < 64; i++) {
+            for (int j = 0; j < 64; j++) {
+                double x = 0.5 + i * Math.ulp(0.5);
+                double y = 0.5 + j * Math.ulp(0.5);
+
+                int expected = exactSignedArea(x, y, 12, 12, 24, 24).signum();
+                assertThat(Triangle.orientation(x, y, 12, 12, 24, 24)).isEqualTo(expected);
+                assertThat(Triangle.orientation(12, 12, 24, 24, x, y)).isEqualTo(expected);
+                assertThat(Triangle.orientation(24, 24, x, y, 12, 12)).isEqualTo(expected);
+
+                if ((int) Math.signum(Triangle.signedArea(x, y, 12, 12, 24, 24)) != expected) {
+                    wrongSigns++;
+                }
+            }
+        }
+        // the floating point area alone is not sufficient for these points
+        assertThat(wrongSigns).isGreaterThan(0);
+    }
+
+    private static BigDecimal exactSignedArea(double x0, double y0, double x1, double y1, double x2, double y2) {
+        BigDecimal dx0 = new BigDecimal(x0).subtract(new BigDecimal(x2));
+        BigDecimal dy0 = new BigDecimal(y0).subtract(new BigDecimal(y2));
+        BigDecimal dx1 = new BigDecimal(x1).subtract(new BigDecimal(x2));
+        BigDecimal dy1 = new BigDecimal(y1).subtract(new BigDecimal(y2));
+        return dx0.multiply(dy1).subtract(dx1.multiply(dy0));
+    }
+}
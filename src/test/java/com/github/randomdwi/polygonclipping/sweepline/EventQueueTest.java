@@ -0,0 +1,73 @@
+package com.github.randomdwi.polygonclipping.sweepline;
+
+import com.github.randomdwi.polygonclipping.enums.PolygonType;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static com.github.randomdwi.polygonclipping.sweepline.EventStore.NONE;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The type Event queue test.
+ */
+public class EventQueueTest {
+
+    @Test
+    public void testPollOrder() {
+
+        EventStore store = new EventStore(4);
+        SweepEventComparator comparator = new SweepEventComparator(store, true);
+        EventQueue queue = new EventQueue(comparator);
+
+        Random random = new Random(42);
+        for (int i = 0; i < 500; i++) {
+            int e1 = store.add(random.nextInt(20), random.nextInt(20), true, NONE, PolygonType.SUBJECT.ordinal());
+            int e2 = store.add(random.nextInt(20), random.nextInt(20), false, e1, PolygonType.SUBJECT.ordinal());
+            store.setOtherEvent(e1, e2);
+            queue.add(e1);
+            queue.add(e2);
+        }
+        assertThat(queue.size()).isEqualTo(1000);
+
+        List<Integer> polled = new ArrayList<>();
+        while (!queue.isEmpty()) {
+            polled.add(queue.poll());
+        }
+        assertThat(polled).hasSize(1000);
+        for (int i = 1; i < polled.size(); i++) {
+            assertThat(store.x(polled.get(i - 1))).isLessThanOrEqualTo(store.x(polled.get(i)));
+        }
+        assertThat(queue.poll()).isEqualTo(NONE);
+    }
+
+    @Test
+    public void testEventStore() {
+
+        EventStore store = new EventStore(2);
+        int left = store.add(0, 0, true, NONE, PolygonType.CLIPPING.ordinal());
+        int right = store.add(1, 1, false, left, PolygonType.CLIPPING.ordinal());
+        store.setOtherEvent(left, right);
+        store.setInOut(left, true);
+        store.setInResult(left, true);
+
+        assertThat(store.size()).isEqualTo(2);
+        assertThat(store.isLeft(left)).isTrue();
+        assertThat(store.isLeft(right)).isFalse();
+        assertThat(store.inOut(left)).isTrue();
+        assertThat(store.otherInOut(left)).isFalse();
+        assertThat(store.inResult(left)).isTrue();
+        assertThat(store.prevInResult(left)).isEqualTo(NONE);
+        assertThat(store.below(left, 0, 1)).isTrue();
+        assertThat(store.above(left, 1, 0)).isTrue();
+
+        SweepEvent view = store.toSweepEvent(left);
+        assertThat(view.otherEvent.point).isEqualTo(store.point(right));
+        assertThat(view.inOut).isTrue();
+
+        store.clear();
+        assertThat(store.size()).isEqualTo(0);
+    }
+}
@@ -0,0 +1,86 @@
+package com.github.randomdwi.polygonclipping.sweepline;
+
+import com.github.randomdwi.polygonclipping.enums.PolygonType;
+import com.github.randomdwi.polygonclipping.segment.SegmentComparator;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.github.randomdwi.polygonclipping.sweepline.EventStore.NONE;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The type Sweep line status test.
+ */
+public class SweepLineStatusTest {
+
+    private final EventStore store = new EventStore();
+    private final SweepLineStatus status = new SweepLineStatus(new SegmentComparator(store, false));
+
+    private int segment(double x0, double y0, double x1, double y1) {
+        int left = store.add(x0, y0, true, NONE, PolygonType.SUBJECT.ordinal());
+        int right = store.add(x1, y1, false, left, PolygonType.SUBJECT.ordinal());
+        store.setOtherEvent(left, right);
+        return left;
+    }
+
+    private List<Integer> events() {
+        List<Integer> events = new ArrayList<>();
+        status.forEach(events::add);
+        return events;
+    }
+
+    @Test
+    public void testNeighbors() {
+
+        List<Integer> segments = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            // horizontal segments inserted in scrambled order
+            int y = (i * 37) % 100;
+            segments.add(segment(0, y, 10, y));
+        }
+        segments.forEach(status::addEvent);
+
+        assertThat(status.size()).isEqualTo(100);
+        List<Integer> ordered = events();
+        for (int i = 0; i < ordered.size(); i++) {
+            int event = ordered.get(i);
+            assertThat(store.y(event)).isEqualTo(i);
+            assertThat(status.getPreviousEvent(event)).isEqualTo(i > 0 ? (int) ordered.get(i - 1) : NONE);
+            assertThat(status.getNextEvent(event)).isEqualTo(i < ordered.size() - 1 ? (int) ordered.get(i + 1) : NONE);
+        }
+
+        // remove every second segment
+        for (int i = 0; i < ordered.size(); i += 2) {
+            status.removeEvent(ordered.get(i));
+        }
+        assertThat(status.size()).isEqualTo(50);
+        for (int event : events()) {
+            assertThat(store.y(event) % 2).isEqualTo(1.0);
+        }
+        assertThat(status.getPreviousEvent(ordered.get(3))).isEqualTo(ordered.get(1));
+        assertThat(status.getNextEvent(ordered.get(3))).isEqualTo(ordered.get(5));
+    }
+
+    @Test
+    public void testEventNotInStatusLine() {
+
+        int bottom = segment(0, 0, 10, 0);
+        int top = segment(0, 2, 10, 2);
+        status.addEvent(bottom);
+        status.addEvent(top);
+
+        int middle = segment(0, 1, 10, 1);
+        assertThat(status.contains(middle)).isFalse();
+        assertThat(status.getPreviousEvent(middle)).isEqualTo(bottom);
+        assertThat(status.getNextEvent(middle)).isEqualTo(top);
+
+        // equal segments are not inserted twice
+        int duplicate = segment(0, 2, 10, 2);
+        status.addEvent(duplicate);
+        assertThat(status.size()).isEqualTo(2);
+        status.removeEvent(duplicate);
+        assertThat(events()).containsExactly(bottom);
+    }
+}
@@ -0,0 +1,87 @@
+package com.github.randomdwi.polygonclipping.utils;
+
+import com.github.randomdwi.polygonclipping.Polygon;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class PolygonBinaryFormatTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testMappedFileRoundTrip() throws IOException {
+
+        Polygon polygon = new Polygon(PolygonBinaryFormatTest.class.getResourceAsStream("/polygons/samples/polygonwithholes"));
+        Path path = folder.newFile("polygonwithholes.bin").toPath();
+
+        PolygonBinaryFormat.write(polygon, path);
+        Polygon result = PolygonBinaryFormat.read(path);
+
+        assertThat(result.contourCount()).isEqualTo(3);
+        assertThat(result.contour(0).getHoles()).containsExactly(1);
+        assertThat(result.contour(1).isHole()).isTrue();
+        assertThat(serialize(result)).isEqualTo(serialize(polygon));
+    }
+
+    @Test
+    public void testStreamRoundTrip() throws IOException {
+
+        Polygon polygon = new Polygon(PolygonBinaryFormatTest.class.getResourceAsStream("/polygons/samples/polygonwithhole"));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        PolygonBinaryFormat.write(polygon, outputStream);
+        Polygon result = PolygonBinaryFormat.read(ByteBuffer.wrap(outputStream.toByteArray()));
+
+        assertThat(serialize(result)).isEqualTo(serialize(polygon));
+    }
+
+    @Test
+    public void testRejectsOtherFormat() {
+        assertThatThrownBy(() -> PolygonBinaryFormat.read(ByteBuffer.wrap("1\n4\n0 0\n".getBytes())))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void testRejectsInvalidHeader() throws IOException {
+        Polygon polygon = new Polygon(PolygonBinaryFormatTest.class.getResourceAsStream("/polygons/samples/polygonwithholes"));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        PolygonBinaryFormat.write(polygon, outputStream);
+        byte[] bytes = outputStream.toByteArray();
+
+        // header: magic, version, contour count, point count, hole count, then the point offsets
+        assertInvalid(bytes, 2, -1);
+        assertInvalid(bytes, 2, Integer.MAX_VALUE);
+        assertInvalid(bytes, 3, 1000);
+        assertInvalid(bytes, 4, -3);
+        // first point offset must be 0, offsets ascending
+        assertInvalid(bytes, 5, 1);
+        assertInvalid(bytes, 6, -2);
+        // last point offset is the point count
+        assertInvalid(bytes, 8, 0);
+        // hole table with an index beyond the contours
+        assertInvalid(bytes, 5 + 2 * 4, 3);
+    }
+
+    private static void assertInvalid(byte[] bytes, int intIndex, int value) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes.clone()).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(intIndex * Integer.BYTES, value);
+        assertThatThrownBy(() -> PolygonBinaryFormat.read(buffer)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static String serialize(Polygon polygon) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        polygon.serialize(outputStream);
+        return outputStream.toString();
+    }
+}
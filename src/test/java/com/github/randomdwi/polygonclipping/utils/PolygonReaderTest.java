@@ -0,0 +1,108 @@
+package com.github.randomdwi.polygonclipping.utils;
+
+import com.github.randomdwi.polygonclipping.geometry.Contour;
+import com.github.randomdwi.polygonclipping.geometry.Point;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class PolygonReaderTest {
+
+    @Test
+    public void testCommentsAndHoles() throws IOException {
+
+        List<Contour> contours = read("# two squares\n2\n" +
+                "# outer\n4\n 0 0\n10 0\n10 10\n0 10\n" +
+                "4\t# hole\n\t2 2\n\t2 8\n\t8 8\n\t8 2\n" +
+                "\n0: 1 # hole of contour 0\n");
+
+        assertThat(contours).hasSize(2);
+        assertThat(contours.get(0).getPoints()).containsExactly(new Point(0, 0), new Point(10, 0), new Point(10, 10), new Point(0, 10));
+        assertThat(contours.get(0).getHoles()).containsExactly(1);
+        assertThat(contours.get(1).isHole()).isTrue();
+        assertThat(contours.get(1).getPoints()).hasSize(4);
+    }
+
+    @Test
+    public void testSkipsRepeatedPointsAndDegeneratedContours() throws IOException {
+
+        // repeated points do not count towards the point count of a contour
+        List<Contour> contours = read("3\n3\n0 0\n0 0\n1 0\n0 1\n2\n5 5\n5 5\n6 6\n3\n2 2\n3 2\n3 2\n2 3\n");
+
+        assertThat(contours).hasSize(2);
+        assertThat(contours.get(0).getPoints()).containsExactly(new Point(0, 0), new Point(1, 0), new Point(0, 1));
+        assertThat(contours.get(1).getPoints()).containsExactly(new Point(2, 2), new Point(3, 2), new Point(2, 3));
+    }
+
+    @Test
+    public void testParsesDoublesExactly() throws IOException {
+
+        Random random = new Random(5);
+        double[] values = new double[1000];
+        StringBuilder input = new StringBuilder("1\n").append(values.length / 2).append('\n');
+        for (int i = 0; i < values.length; i++) {
+            double value = (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(30) - 15);
+            String text;
+            switch (i % 3) {
+                case 0:
+                    text = Double.toString(value);
+                    break;
+                case 1:
+                    text = String.format(Locale.ROOT, "%.6f", value);
+                    break;
+                default:
+                    text = String.format(Locale.ROOT, "%.4e", value);
+            }
+            values[i] = Double.parseDouble(text);
+            input.append(text).append(i % 2 == 0 ? ' ' : '\n');
+        }
+
+        List<Point> points = read(input.toString()).get(0).getPoints();
+
+        for (int i = 0; i < points.size(); i++) {
+            assertThat(points.get(i).x).isEqualTo(values[2 * i]);
+            assertThat(points.get(i).y).isEqualTo(values[2 * i + 1]);
+        }
+    }
+
+    @Test
+    public void testReadsSlowStreamCompletely() throws IOException {
+
+        InputStream slowStream = new FilterInputStream(new ByteArrayInputStream("1\n3\n0 0\n1 0\n0 1\n".getBytes())) {
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                return super.read(b, off, Math.min(len, 1));
+            }
+
+            @Override
+            public int available() {
+                return 0;
+            }
+        };
+
+        assertThat(new PolygonReader(slowStream).readContours().get(0).getPoints()).hasSize(3);
+    }
+
+    @Test
+    public void testTruncatedInput() {
+        assertThatThrownBy(() -> read("2\n3\n0 0\n1 0\n0 1\n"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("not enough contours: 1<2");
+        assertThatThrownBy(() -> read("1\n3\n0 0\n1 0\n"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("not enough points: 2<3");
+    }
+
+    private static List<Contour> read(String input) throws IOException {
+        return new PolygonReader(new ByteArrayInputStream(input.getBytes())).readContours();
+    }
+}
@@ -0,0 +1,61 @@
+package com.github.randomdwi.polygonclipping.utils;
+
+import com.github.randomdwi.polygonclipping.geometry.BoundingBox;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RTreeTest {
+
+    @Test
+    public void testSearchFindsAllIntersectingBoxes() {
+
+        Random random = new Random(7);
+        List<BoundingBox> boxes = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            boxes.add(randomBox(random, 5));
+        }
+        RTree tree = new RTree(boxes);
+
+        assertThat(tree.size()).isEqualTo(5000);
+        for (int q = 0; q < 200; q++) {
+            BoundingBox query = randomBox(random, 20);
+
+            List<Integer> expected = new ArrayList<>();
+            for (int i = 0; i < boxes.size(); i++) {
+                if (boxes.get(i).intersects(query)) {
+                    expected.add(i);
+                }
+            }
+            List<Integer> found = new ArrayList<>();
+            tree.search(query, found::add);
+            Collections.sort(found);
+
+            assertThat(found).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    public void testEmptyAndSingleEntryTree() {
+
+        BoundingBox box = new BoundingBox(0, 0, 1, 1);
+
+        List<Integer> found = new ArrayList<>();
+        new RTree(Collections.emptyList()).search(box, found::add);
+        assertThat(found).isEmpty();
+
+        new RTree(Collections.singletonList(box)).search(new BoundingBox(1, 1, 2, 2), found::add);
+        assertThat(found).containsExactly(0);
+    }
+
+    private static BoundingBox randomBox(Random random, double maxSize) {
+        double x = random.nextDouble() * 1000;
+        double y = random.nextDouble() * 1000;
+        return new BoundingBox(x, y, x + random.nextDouble() * maxSize, y + random.nextDouble() * maxSize);
+    }
+}